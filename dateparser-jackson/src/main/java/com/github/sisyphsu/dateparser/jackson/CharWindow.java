@@ -0,0 +1,51 @@
+package com.github.sisyphsu.dateparser.jackson;
+
+/**
+ * A reusable CharSequence view of the range of JsonParser's token buffer, the chars aren't copied.
+ * <p>
+ * The buffer is owned by JsonParser and overwritten by the next token, so it's released after every parsing.
+ *
+ * @author sulin
+ * @since 2026-10-19 22:35:12
+ */
+final class CharWindow implements CharSequence {
+
+    private char[] buf;
+    private int offset;
+    private int length;
+
+    void wrap(char[] buf, int offset, int length) {
+        this.buf = buf;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    void release() {
+        this.buf = null;
+        this.length = 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return buf[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return buf == null ? "" : new String(buf, offset, length);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.github.sisyphsu.dateparser.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.github.sisyphsu.dateparser.DateBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.function.Function;
+
+/**
+ * The deserializer which parses JSON's string or integer by dateparser, it reads the token's buffer
+ * by {@link JsonParser#getTextCharacters()} directly, without building the intermediate String.
+ * <p>
+ * DateParser isn't thread-safe, so every thread uses its own parser, instead of the global lock of DateParserUtils.
+ * Any parsing failure is reported as the weird string value, like Jackson's own deserializers.
+ *
+ * @author sulin
+ * @since 2026-10-19 22:31:06
+ */
+public final class DateParserDeserializer<T> extends StdScalarDeserializer<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ParserContexts contexts;
+    private final Converter<T> converter;
+
+    DateParserDeserializer(Class<T> type, ParserContexts contexts, Converter<T> converter) {
+        super(type);
+        this.contexts = contexts;
+        this.converter = converter;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        int token = p.currentTokenId();
+        if (token != JsonTokenId.ID_STRING && token != JsonTokenId.ID_NUMBER_INT) {
+            return (T) ctxt.handleUnexpectedToken(handledType(), p);
+        }
+        int length = p.getTextLength();
+        if (length == 0) {
+            return null;
+        }
+        ParserContext context = contexts.get();
+        CharWindow text = context.text;
+        text.wrap(p.getTextCharacters(), p.getTextOffset(), length);
+        try {
+            context.parser.parse(text, context.builder);
+            return converter.apply(context.builder);
+        } catch (RuntimeException e) {
+            return (T) ctxt.handleWeirdStringValue(handledType(), text.toString(), "%s", e.getMessage());
+        } finally {
+            text.release();
+        }
+    }
+
+    /**
+     * The serializable conversion from the parsed DateBuilder.
+     */
+    interface Converter<T> extends Function<DateBuilder, T>, Serializable {
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.github.sisyphsu.dateparser.jackson;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.sisyphsu.dateparser.DateBuilder;
+import com.github.sisyphsu.dateparser.DateParserBuilder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Jackson module which deserializes Date, Instant, LocalDateTime and OffsetDateTime by dateparser,
+ * the JSON value could be string or integer, like '2019-10-01 10:20:30 +0800' or 1569896430000.
+ * <p>
+ * It should be registered after JavaTimeModule, because the latter registered deserializer wins.
+ * Only the module with default rules is serializable, because the customized DateParserBuilder isn't.
+ *
+ * @author sulin
+ * @since 2026-10-19 22:38:25
+ */
+public class DateParserModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Initialize module with the default rules of dateparser
+     */
+    public DateParserModule() {
+        this(new ParserContexts(null));
+    }
+
+    /**
+     * Initialize module with the customized DateParserBuilder, every thread builds its own DateParser from it.
+     *
+     * @param builder The builder of DateParser
+     */
+    public DateParserModule(DateParserBuilder builder) {
+        this(new ParserContexts(Objects.requireNonNull(builder, "builder cannot be null")));
+    }
+
+    private DateParserModule(ParserContexts contexts) {
+        super("DateParserModule");
+        this.addDeserializer(Date.class, new DateParserDeserializer<>(Date.class, contexts, DateBuilder::toDate));
+        this.addDeserializer(Instant.class, new DateParserDeserializer<>(Instant.class, contexts, DateBuilder::toInstant));
+        this.addDeserializer(LocalDateTime.class,
+                new DateParserDeserializer<>(LocalDateTime.class, contexts, DateBuilder::toLocalDateTime));
+        this.addDeserializer(OffsetDateTime.class,
+                new DateParserDeserializer<>(OffsetDateTime.class, contexts, DateBuilder::toOffsetDateTime));
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.github.sisyphsu.dateparser.jackson;
+
+import com.github.sisyphsu.dateparser.DateBuilder;
+import com.github.sisyphsu.dateparser.DateParser;
+
+/**
+ * The thread's own parsing state, reused by all deserializers of one module.
+ *
+ * @author sulin
+ * @since 2026-10-19 22:33:47
+ */
+final class ParserContext {
+
+    final DateParser parser;
+    final DateBuilder builder = new DateBuilder();
+    final CharWindow text = new CharWindow();
+
+    ParserContext(DateParser parser) {
+        this.parser = parser;
+    }
+
+}
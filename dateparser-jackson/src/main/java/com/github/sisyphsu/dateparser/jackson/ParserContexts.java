@@ -0,0 +1,66 @@
+package com.github.sisyphsu.dateparser.jackson;
+
+import com.github.sisyphsu.dateparser.DateParser;
+import com.github.sisyphsu.dateparser.DateParserBuilder;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * Every thread's ParserContext, shared by all deserializers of one module.
+ * <p>
+ * ThreadLocal isn't serializable, so it's rebuilt lazily after deserialization. The customized DateParserBuilder
+ * couldn't be serialized, so only the module with default rules is serializable.
+ *
+ * @author sulin
+ * @since 2026-10-20 14:12:37
+ */
+final class ParserContexts implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The customized builder, null means the default rules
+     */
+    private final transient DateParserBuilder builder;
+    private transient volatile ThreadLocal<ParserContext> contexts;
+
+    ParserContexts(DateParserBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Get the current thread's ParserContext, build it at the first use.
+     */
+    ParserContext get() {
+        ThreadLocal<ParserContext> local = contexts;
+        if (local == null) {
+            synchronized (this) {
+                local = contexts;
+                if (local == null) {
+                    contexts = local = ThreadLocal.withInitial(this::create);
+                }
+            }
+        }
+        return local.get();
+    }
+
+    private ParserContext create() {
+        if (builder == null) {
+            return new ParserContext(DateParser.newBuilder().build());
+        }
+        synchronized (builder) {
+            return new ParserContext(builder.build());
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        if (builder != null) {
+            throw new NotSerializableException("DateParserModule with customized DateParserBuilder");
+        }
+        out.defaultWriteObject();
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.github.sisyphsu.dateparser.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.github.sisyphsu.dateparser.DateParser;
+import com.github.sisyphsu.dateparser.DateParserUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author sulin
+ * @since 2026-10-19 22:41:30
+ */
+public class DateParserModuleTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new DateParserModule());
+
+    public static class Event {
+        public Date date;
+        public Instant instant;
+        public LocalDateTime dateTime;
+        public OffsetDateTime offsetDateTime;
+    }
+
+    @Test
+    public void test() throws Exception {
+        String text = "Mon Jan 02 15:04:05 -0700 2006";
+        String json = String.format("{\"date\":\"%s\",\"instant\":\"%s\",\"dateTime\":\"%s\",\"offsetDateTime\":\"%s\"}",
+                text, text, text, text);
+        Event event = mapper.readValue(json, Event.class);
+        assert event.date.equals(DateParserUtils.parseDate(text));
+        assert event.instant.equals(DateParserUtils.parseInstant(text));
+        assert event.dateTime.equals(DateParserUtils.parseDateTime(text));
+        assert event.offsetDateTime.equals(DateParserUtils.parseOffsetDateTime(text));
+
+        // the token buffer is larger than the value
+        Date[] dates = mapper.readValue("[\"2019-10-01\", \"2019-10-01T10:20:30.123+08:00\", 1384216367189, null, \"\"]", Date[].class);
+        assert dates[0].equals(DateParserUtils.parseDate("2019-10-01"));
+        assert dates[1].equals(DateParserUtils.parseDate("2019-10-01T10:20:30.123+08:00"));
+        assert dates[2].getTime() == 1384216367189L;
+        assert dates[3] == null;
+        assert dates[4] == null;
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        try {
+            mapper.readValue("{\"date\":\"not a date\"}", Event.class);
+            assert false;
+        } catch (InvalidFormatException e) {
+            assert "not a date".equals(e.getValue());
+        }
+        try {
+            mapper.readValue("{\"instant\":true}", Event.class);
+            assert false;
+        } catch (Exception e) {
+            assert e.getMessage().contains("Instant");
+        }
+
+        // the handler's failure isn't DateTimeException
+        ObjectMapper failing = new ObjectMapper().registerModule(new DateParserModule(DateParser.newBuilder()
+                .addRule("boom", (input, matcher, dt) -> {
+                    throw new IllegalStateException("boom");
+                })));
+        try {
+            failing.readValue("\"boom\"", Date.class);
+            assert false;
+        } catch (InvalidFormatException e) {
+            assert "boom".equals(e.getValue());
+        }
+    }
+
+    @Test
+    public void testCustomized() throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new DateParserModule(DateParser.newBuilder().preferMonthFirst(true)));
+        Date date = mapper.readValue("\"02/03/2019\"", Date.class);
+        assert date.getMonth() == 1;
+    }
+
+    @Test
+    public void testSerializable() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new DateParserModule());
+        }
+        DateParserModule module;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            module = (DateParserModule) in.readObject();
+        }
+        ObjectMapper mapper = new ObjectMapper().registerModule(module);
+        assert mapper.readValue("\"2019-10-01\"", Date.class).equals(DateParserUtils.parseDate("2019-10-01"));
+
+        // the customized builder couldn't be serialized
+        try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+            out.writeObject(new DateParserModule(DateParser.newBuilder().preferMonthFirst(true)));
+            assert false;
+        } catch (NotSerializableException e) {
+            assert e.getMessage().contains("DateParserBuilder");
+        }
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        String json = "[\"2019-10-01 10:20:30\", \"Oct 1, 2019 10:20:30 AM\", \"2019/10/01 10:20:30\"]";
+        LocalDateTime expect = LocalDateTime.of(2019, 10, 1, 10, 20, 30);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = pool.submit(() -> {
+                    for (int n = 0; n < 1000; n++) {
+                        for (LocalDateTime dt : mapper.readValue(json, LocalDateTime[].class)) {
+                            assert dt.equals(expect);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.github.sisyphsu.dateparser.jackson.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.sisyphsu.dateparser.DateParserUtils;
+import com.github.sisyphsu.dateparser.jackson.DateParserModule;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare DateParserModule with the usual integration, which calls getText() and DateParserUtils.parseDate().
+ *
+ * @author sulin
+ * @since 2026-10-19 22:46:52
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(2)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeserializerBenchmark {
+
+    private static final String JSON = "[\"2019-10-01\", \"2019-10-01 10:20:30\", \"2019-10-01T10:20:30.123+08:00\", "
+            + "\"Mon Jan 02 15:04:05 -0700 2006\", \"03/31/2014 22:05\", 1384216367189, \"2014-12-16 06:20:00 UTC\", "
+            + "\"September 17, 2012 10:09am\"]";
+
+    private static final ObjectMapper MODULE = new ObjectMapper().registerModule(new DateParserModule());
+    private static final ObjectMapper NAIVE = new ObjectMapper().registerModule(
+            new SimpleModule().addDeserializer(Date.class, new NaiveDeserializer()));
+
+    @Benchmark
+    public Date[] module() throws IOException {
+        return MODULE.readValue(JSON, Date[].class);
+    }
+
+    @Benchmark
+    public Date[] naive() throws IOException {
+        return NAIVE.readValue(JSON, Date[].class);
+    }
+
+    @Test
+    public void test() throws IOException {
+        assert Arrays.equals(module(), naive());
+    }
+
+    static class NaiveDeserializer extends StdScalarDeserializer<Date> {
+
+        NaiveDeserializer() {
+            super(Date.class);
+        }
+
+        @Override
+        public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return DateParserUtils.parseDate(p.getText());
+        }
+    }
+
+}
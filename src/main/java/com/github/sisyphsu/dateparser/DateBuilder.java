@@ -4,12 +4,14 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.*;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.TimeZone;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This DateTime used for caching the properties of parser.
+ * <p>
+ * It could be filled by {@link DateParser#parse(CharSequence, DateBuilder)} and reused,
+ * the parsed fields are accessible by getters directly.
  *
  * @author sulin
  * @since 2019-09-12 14:58:15
@@ -20,6 +22,11 @@ public final class DateBuilder {
 
     private static final ZoneId UTC_ZONE_ID = ZoneId.of("UTC");
     private static final ZoneOffset DEFAULT_OFFSET = OffsetDateTime.now().getOffset();
+    private static final long DAY_MILLIS = 86400000L;
+    private static final int UNKNOWN_OFFSET = Integer.MIN_VALUE;
+    private static final long UNKNOWN_MILLIS = Long.MIN_VALUE;
+    private static final long MAX_UNIXSECOND = 31556889864403199L; // Instant.MAX
+    private static final Map<Integer, String> OFFSET_ZONE_IDS = new ConcurrentHashMap<>();
 
     int week;
     int year;
@@ -59,35 +66,69 @@ public final class DateBuilder {
     }
 
     /**
-     * Convert this instance into Date
+     * Copy all fields of the specified instance into this instance.
      */
-    Date toDate() {
-        if (!zoneOffsetSetted) {
+    void copyFrom(DateBuilder src) {
+        this.week = src.week;
+        this.year = src.year;
+        this.month = src.month;
+        this.day = src.day;
+        this.hour = src.hour;
+        this.minute = src.minute;
+        this.second = src.second;
+        this.ns = src.ns;
+        this.unixsecond = src.unixsecond;
+        this.am = src.am;
+        this.pm = src.pm;
+        this.zoneOffsetSetted = src.zoneOffsetSetted;
+        this.zoneOffset = src.zoneOffset;
+        this.zone = src.zone;
+    }
+
+    /**
+     * Convert this instance into Date, the millis is computed from fields directly, without Calendar.
+     *
+     * @return Date
+     */
+    public Date toDate() {
+        if (zoneOffsetSetted) {
+            return new Date(toEpochSecond() * 1000 + ns / 1000000);
+        }
+        this.prepare();
+        if (unixsecond != 0) {
+            return new Date(unixsecond * 1000 + ns / 1000000);
+        }
+        long millis = isGregorianLocale() ? calendarMillis(zone != null ? zone : TimeZone.getDefault()) : UNKNOWN_MILLIS;
+        if (millis == UNKNOWN_MILLIS) {
             return toCalendar().getTime();
         }
-        return Date.from(toOffsetDateTime().toInstant());
+        return new Date(millis);
     }
 
     /**
      * Convert this instance into Calendar
+     *
+     * @return Calendar
      */
-    Calendar toCalendar() {
+    public Calendar toCalendar() {
         this.prepare();
-        Calendar calendar = Calendar.getInstance();
         if (unixsecond != 0) {
+            Calendar calendar = Calendar.getInstance();
             calendar.setTimeInMillis(unixsecond * 1000 + ns / 1000000);
             return calendar;
         }
-        if (zone != null) {
-            calendar.setTimeZone(zone);
-        }
+        Calendar calendar;
         if (zoneOffsetSetted) {
-            String[] ids = TimeZone.getAvailableIDs(zoneOffset * 60000);
-            if (ids.length == 0) {
-                throw new DateTimeException("Can't build Calendar, because the zoneOffset[" + zoneOffset
-                        + "] can't be converted to an valid TimeZone.");
-            }
-            calendar.setTimeZone(TimeZone.getTimeZone(ids[0]));
+            calendar = Calendar.getInstance(offsetZone(zoneOffset));
+        } else if (zone != null) {
+            calendar = Calendar.getInstance(zone);
+        } else {
+            calendar = Calendar.getInstance();
+        }
+        long millis = calendar.getClass() == GregorianCalendar.class ? calendarMillis(calendar.getTimeZone()) : UNKNOWN_MILLIS;
+        if (millis != UNKNOWN_MILLIS) {
+            calendar.setTimeInMillis(millis);
+            return calendar;
         }
         calendar.set(Calendar.YEAR, year);
         calendar.set(Calendar.MONTH, month - 1);
@@ -101,8 +142,10 @@ public final class DateBuilder {
 
     /**
      * Convert this instance into LocalDateTime
+     *
+     * @return LocalDateTime
      */
-    LocalDateTime toLocalDateTime() {
+    public LocalDateTime toLocalDateTime() {
         this.prepare();
         if (unixsecond > 0) {
             return LocalDateTime.ofEpochSecond(unixsecond, ns, DEFAULT_OFFSET);
@@ -122,8 +165,10 @@ public final class DateBuilder {
 
     /**
      * Convert this instance into OffsetDateTime
+     *
+     * @return OffsetDateTime
      */
-    OffsetDateTime toOffsetDateTime() {
+    public OffsetDateTime toOffsetDateTime() {
         this.prepare();
         if (unixsecond > 0) {
             return OffsetDateTime.ofInstant(Instant.ofEpochSecond(unixsecond, ns), UTC_ZONE_ID);
@@ -143,15 +188,220 @@ public final class DateBuilder {
     }
 
     /**
-     * Prepare this builder
+     * Convert this instance into Instant, it's the same as toOffsetDateTime().toInstant(),
+     * but computed from the fields directly.
+     *
+     * @return Instant
+     */
+    public Instant toInstant() {
+        return Instant.ofEpochSecond(toEpochSecond(), ns);
+    }
+
+    /**
+     * Convert this instance into the seconds from 1970-01-01T00:00:00Z, the nanos is kept in ns.
+     * It's computed by days-from-civil arithmetic, without LocalDateTime or Calendar.
+     *
+     * @return The epoch second
+     */
+    public long toEpochSecond() {
+        this.prepare();
+        if (unixsecond > 0) {
+            return unixsecond;
+        }
+        if (!isValid()) {
+            return toOffsetDateTime().toEpochSecond(); // throws DateTimeException
+        }
+        long epochSecond = epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second;
+        if (zoneOffsetSetted) {
+            return epochSecond - zoneOffset * 60;
+        }
+        if (zone != null) {
+            int offset = this.zoneOffsetOfLocal(epochSecond);
+            if (offset == UNKNOWN_OFFSET) {
+                return toOffsetDateTime().toEpochSecond();
+            }
+            return epochSecond - offset / 1000;
+        }
+        return epochSecond;
+    }
+
+    /**
+     * Write this instance into the specified buffer in ISO-8601, it's the same as toOffsetDateTime(),
+     * but the local datetime and offset are computed from the fields directly.
+     *
+     * @return The end offset in buffer
+     */
+    int writeIso(char[] buf, int pos, IsoFormat format) {
+        this.prepare();
+        if (unixsecond > 0) {
+            if (unixsecond > MAX_UNIXSECOND || ns < 0 || ns >= 1000000000) {
+                return writeIso(buf, pos, format, toOffsetDateTime()); // overflow
+            }
+            // civil from days, the inverse of epochDay
+            int secondOfDay = (int) (unixsecond % 86400);
+            long dayOfEpoch = unixsecond / 86400 + 719468;
+            long era = dayOfEpoch / 146097;
+            int dayOfEra = (int) (dayOfEpoch - era * 146097);
+            int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+            int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            int monthOfYear = (5 * dayOfYear + 2) / 153;
+            int d = dayOfYear - (153 * monthOfYear + 2) / 5 + 1;
+            int m = monthOfYear < 10 ? monthOfYear + 3 : monthOfYear - 9;
+            int y = (int) (era * 400) + yearOfEra + (m <= 2 ? 1 : 0);
+            return format.write(buf, pos, y, m, d, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, ns, 0);
+        }
+        if (!isValid()) {
+            return writeIso(buf, pos, format, toOffsetDateTime()); // throws DateTimeException
+        }
+        int offsetSecond = 0;
+        if (zoneOffsetSetted) {
+            offsetSecond = zoneOffset * 60;
+        } else if (zone != null) {
+            long localSecond = epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second;
+            int offset = this.zoneOffsetOfLocal(localSecond);
+            if (offset == UNKNOWN_OFFSET) {
+                return writeIso(buf, pos, format, toOffsetDateTime());
+            }
+            offsetSecond = offset / 1000;
+        }
+        return format.write(buf, pos, year, month, day, hour, minute, second, ns, offsetSecond);
+    }
+
+    private static int writeIso(char[] buf, int pos, IsoFormat format, OffsetDateTime dt) {
+        return format.write(buf, pos, dt.getYear(), dt.getMonthValue(), dt.getDayOfMonth(), dt.getHour(),
+                dt.getMinute(), dt.getSecond(), dt.getNano(), dt.getOffset().getTotalSeconds());
+    }
+
+    /**
+     * Check whether the fields are valid for LocalDateTime and ZoneOffset.
+     */
+    boolean isValid() {
+        return year >= Year.MIN_VALUE && year <= Year.MAX_VALUE && month >= 1 && month <= 12
+                && day >= 1 && day <= lengthOfMonth(year, month)
+                && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60
+                && ns >= 0 && ns < 1000000000
+                && (!zoneOffsetSetted || (zoneOffset >= -1080 && zoneOffset <= 1080));
+    }
+
+    /**
+     * Compute the millis which GregorianCalendar would compute from the fields in the specified TimeZone.
+     * {@link #UNKNOWN_MILLIS} means Calendar is needed, because it's lenient for the invalid fields,
+     * uses Julian calendar before 1583, and has its own choice for the gap and overlap.
+     */
+    private long calendarMillis(TimeZone zone) {
+        if (year <= 1582 || !isValid()) {
+            return UNKNOWN_MILLIS;
+        }
+        long localSecond = epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second;
+        long localMillis = localSecond * 1000 + ns / 1000000;
+        int offset = offsetOfLocal(zone, localMillis);
+        if (offset == UNKNOWN_OFFSET) {
+            return UNKNOWN_MILLIS;
+        }
+        return localMillis - offset;
+    }
+
+    /**
+     * Get the offset in millis of zone at the specified local second, it must be the same as ZoneId's.
+     * TimeZone's rules are different from ZoneId's before 1900, and since 2037 in some zones like Asia/Gaza,
+     * {@link #UNKNOWN_OFFSET} is returned for them.
      */
-    private void prepare() {
+    private int zoneOffsetOfLocal(long localSecond) {
+        if (year < 1900 || year > 2036) {
+            return UNKNOWN_OFFSET;
+        }
+        return offsetOfLocal(zone, localSecond * 1000);
+    }
+
+    /**
+     * Get the TimeZone of the specified offset in minutes, its ID is cached because the lookup scans all zones.
+     */
+    private static TimeZone offsetZone(int offset) {
+        String id = OFFSET_ZONE_IDS.get(offset);
+        if (id == null) {
+            String[] ids = TimeZone.getAvailableIDs(offset * 60000);
+            if (ids.length == 0) {
+                throw new DateTimeException("Can't build Calendar, because the zoneOffset[" + offset
+                        + "] can't be converted to an valid TimeZone.");
+            }
+            id = ids[0];
+            OFFSET_ZONE_IDS.put(offset, id);
+        }
+        return TimeZone.getTimeZone(id);
+    }
+
+    /**
+     * Calendar.getInstance() creates BuddhistCalendar or JapaneseImperialCalendar for some locales.
+     */
+    private static boolean isGregorianLocale() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        String type = locale.getUnicodeLocaleType("ca");
+        if (type != null) {
+            return type.equals("gregory");
+        }
+        String language = locale.getLanguage();
+        String country = locale.getCountry();
+        return !(language.equals("th") && country.equals("TH"))
+                && !(language.equals("ja") && country.equals("JP") && locale.getVariant().equals("JP"));
+    }
+
+    /**
+     * Compute the days from 1970-01-01 of the specified date in proleptic ISO calendar.
+     */
+    static long epochDay(long year, int month, int day) {
+        // shift the year to begin at March, so the leap day is the last day of year
+        if (month <= 2) {
+            year--;
+        }
+        long era = (year >= 0 ? year : year - 399) / 400;
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Get the offset in millis of the specified TimeZone at the specified local time.
+     * If any transition is near, the local time may be in gap or overlap, then {@link #UNKNOWN_OFFSET} is returned,
+     * because LocalDateTime and Calendar have different choices for them.
+     */
+    static int offsetOfLocal(TimeZone zone, long localMillis) {
+        int offset = zone.getOffset(localMillis - zone.getRawOffset());
+        long utcMillis = localMillis - offset;
+        if (zone.getOffset(utcMillis) != offset
+                || zone.getOffset(utcMillis - DAY_MILLIS) != offset
+                || zone.getOffset(utcMillis + DAY_MILLIS) != offset) {
+            return UNKNOWN_OFFSET;
+        }
+        return offset;
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return Year.isLeap(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Prepare this builder, apply am/pm into hour and clear them, so it could be invoked repeatedly.
+     */
+    void prepare() {
         if (am && hour == 12) {
             this.hour = 0;
         }
         if (pm && hour != 12) {
             this.hour += 12;
         }
+        this.am = false;
+        this.pm = false;
     }
 
 }
@@ -2,6 +2,8 @@ package com.github.sisyphsu.dateparser;
 
 import com.github.sisyphsu.retree.ReMatcher;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
@@ -19,22 +21,55 @@ import java.util.*;
  */
 public final class DateParser {
 
-    private final ReMatcher matcher;
-    private final DateBuilder dt = new DateBuilder();
+    /**
+     * The offset which means the whole input should be matched
+     */
+    private static final int WHOLE = -1;
+    /**
+     * The matching flag which treats the customized RuleHandler's exception as failure
+     */
+    private static final int CATCHING = 1;
+    /**
+     * The matching flag which expects failures like findAll's scanning, so the failures aren't recorded
+     */
+    private static final int SCANNING = 2;
 
-    private final List<String> rules;
-    private final Set<String> standardRules;
-    private final Map<String, RuleHandler> customizedRuleMap;
+    /**
+     * The compiled rules, which is shared by all parsers of the same rules
+     */
+    private final RuleTable table;
+    private final RuleFilter filter;
+    private final RuleIndex index;
+    private final RulePlan[] epochPlans;
+    private final DateBuilder dt = new DateBuilder();
+    private final CharArray chars = new CharArray(null);
+    private final char[] iso = new char[IsoFormat.MAX_LENGTH];
 
-    private String input;
+    private CharSequence input;
     private boolean preferMonthFirst;
+    private DateParser fallback;
+
+    private ParseMetrics metrics;
+    private int[] metricsIds;
+    /**
+     * The mutable state of the current call, like the trace, the recorder and the metrics
+     */
+    private final Context context = new Context();
+
+    private final ReMatcher matcher;
+
+    private int errorOffset;
+    private String errorReason;
+    private String errorRule;
 
-    DateParser(List<String> rules, Set<String> stdRules, Map<String, RuleHandler> cstRules, boolean preferMonthFirst) {
-        this.rules = rules;
-        this.standardRules = stdRules;
-        this.customizedRuleMap = cstRules;
+    DateParser(List<String> rules, Set<String> stdRules, Map<String, RuleHandler> cstRules,
+               Map<String, RuleFamily> families, boolean preferMonthFirst) {
         this.preferMonthFirst = preferMonthFirst;
-        this.matcher = new ReMatcher(this.rules.toArray(new String[0]));
+        this.table = RuleTable.of(rules, stdRules, cstRules, families);
+        this.filter = table.filter;
+        this.index = table.index;
+        this.epochPlans = table.epochPlans;
+        this.matcher = index.matcher();
     }
 
     /**
@@ -55,6 +90,23 @@ public final class DateParser {
         this.preferMonthFirst = preferMonthFirst;
     }
 
+    /**
+     * Record this parser's rule hits, failures and latency into the specified metrics, null means disable it.
+     *
+     * @param metrics The metrics which could be shared by multiple parsers
+     */
+    public void setMetrics(ParseMetrics metrics) {
+        int[] ids = null;
+        if (metrics != null) {
+            ids = new int[table.plans.length];
+            for (RulePlan plan : table.plans) {
+                ids[plan.id] = metrics.ruleId(plan.rule);
+            }
+        }
+        this.metrics = metrics;
+        this.metricsIds = ids;
+    }
+
     /**
      * Parse the specified String into Date
      *
@@ -62,10 +114,7 @@ public final class DateParser {
      * @return The parsed Date
      */
     public Date parseDate(String str) {
-        this.dt.reset();
-        this.input = str;
-        this.parse(buildInput(str));
-        return dt.toDate();
+        return this.parse(str).toDate();
     }
 
     /**
@@ -75,10 +124,7 @@ public final class DateParser {
      * @return The parsed Calendar
      */
     public Calendar parseCalendar(String str) {
-        this.dt.reset();
-        this.input = str;
-        this.parse(buildInput(str));
-        return dt.toCalendar();
+        return this.parse(str).toCalendar();
     }
 
     /**
@@ -88,10 +134,7 @@ public final class DateParser {
      * @return The parsed LocalDateTime
      */
     public LocalDateTime parseDateTime(String str) {
-        this.dt.reset();
-        this.input = str;
-        this.parse(buildInput(str));
-        return dt.toLocalDateTime();
+        return this.parse(str).toLocalDateTime();
     }
 
     /**
@@ -101,141 +144,736 @@ public final class DateParser {
      * @return The parsed OffsetDateTime
      */
     public OffsetDateTime parseOffsetDateTime(String str) {
+        return this.parse(str).toOffsetDateTime();
+    }
+
+    /**
+     * Parse the specified string into Instant, without building LocalDateTime or Calendar
+     *
+     * @param str The original String
+     * @return The parsed Instant
+     */
+    public Instant parseInstant(String str) {
+        return this.parse(str).toInstant();
+    }
+
+    /**
+     * Parse the specified string into the seconds from 1970-01-01T00:00:00Z, it allocates nothing
+     *
+     * @param str The original String
+     * @return The parsed epoch second
+     */
+    public long parseEpochSecond(String str) {
+        return this.parse(str).toEpochSecond();
+    }
+
+    /**
+     * Parse the specified String and normalize it into ISO-8601 by {@link IsoFormat#DEFAULT},
+     * it's the same as parseOffsetDateTime(str).toString(), but written from the parsed fields directly.
+     *
+     * @param str The original String like 'Mon Jan 02 15:04:05 -0700 2006'
+     * @return The normalized String like '2006-01-02T15:04:05-07:00'
+     */
+    public String normalize(CharSequence str) {
+        int len = this.parse(str).writeIso(iso, 0, IsoFormat.DEFAULT);
+        return new String(iso, 0, len);
+    }
+
+    /**
+     * Parse the specified String and append its ISO-8601 into the StringBuilder, it allocates nothing
+     * if the StringBuilder has enough capacity.
+     *
+     * @param str    The original String
+     * @param format The precision and offset's style
+     * @param out    The StringBuilder to accept ISO-8601
+     */
+    public void normalize(CharSequence str, IsoFormat format, StringBuilder out) {
+        int len = this.parse(str).writeIso(iso, 0, format);
+        out.append(iso, 0, len);
+    }
+
+    /**
+     * Parse the specified String and append its ISO-8601 into the Appendable, like Writer, char by char.
+     *
+     * @param str    The original String
+     * @param format The precision and offset's style
+     * @param out    The Appendable to accept ISO-8601
+     * @throws IOException If the Appendable failed
+     */
+    public void normalize(CharSequence str, IsoFormat format, Appendable out) throws IOException {
+        int len = this.parse(str).writeIso(iso, 0, format);
+        for (int i = 0; i < len; i++) {
+            out.append(iso[i]);
+        }
+    }
+
+    /**
+     * Parse the specified String and write its ISO-8601 into the char array at the specified offset,
+     * it allocates nothing. The array's remaining length should be 44 at least to accept any datetime.
+     *
+     * @param str    The original String
+     * @param format The precision and offset's style
+     * @param buf    The char array to accept ISO-8601
+     * @param offset The offset in array to write
+     * @return The end offset in array after writing
+     */
+    public int normalize(CharSequence str, IsoFormat format, char[] buf, int offset) {
+        int len = this.parse(str).writeIso(iso, 0, format);
+        System.arraycopy(iso, 0, buf, offset, len);
+        return offset + len;
+    }
+
+    /**
+     * Parse the specified String into the specified DateBuilder, all fields would be reset and filled,
+     * and am/pm would be applied into hour already.
+     * <p>
+     * It doesn't build any Date or Calendar, so the reusable DateBuilder's getters could be used
+     * in hot loops to access the parsed fields directly.
+     *
+     * @param str    The original String like '2019-10-01 00:10:20 +0800'
+     * @param target The DateBuilder to accept parsed fields
+     */
+    public void parse(CharSequence str, DateBuilder target) {
+        this.parse(str, target, 0);
+    }
+
+    /**
+     * Parse into the target, the start is inherited from the failed parser which falls back to this one, or 0.
+     */
+    private void parse(CharSequence str, DateBuilder target, long start) {
+        target.reset();
+        this.input = str;
+        if (this.tryMatch(buildInput(str), WHOLE, target, 0, start) >= 0) {
+            target.prepare();
+        } else if (fallback != null) {
+            fallback.parse(str, target, context.start);
+        } else {
+            throw error();
+        }
+    }
+
+    /**
+     * Parse the longest date at the specified offset into the specified DateBuilder, like the log line's timestamp,
+     * all fields would be reset and filled.
+     * <p>
+     * The matching stops at the first char which no rule covers, so the date's width needn't be known before,
+     * and nothing is allocated, the following content could be processed from the returned offset directly.
+     *
+     * @param str    The original String like '2019-10-01 10:20:30.123 INFO started'
+     * @param from   The offset where the date begins
+     * @param target The DateBuilder to accept parsed fields
+     * @return The end offset of the date, or -1 if no valid date begins at the offset
+     */
+    public int parsePrefix(CharSequence str, int from, DateBuilder target) {
+        if (from < 0 || (str != null && from > str.length())) {
+            throw new IndexOutOfBoundsException("from: " + from);
+        }
+        return this.matchSpan(str, from, target, 0);
+    }
+
+    /**
+     * Check whether the specified String could be parsed, it executes matching and fields' checking only,
+     * without building Date/Calendar or throwing any exception.
+     *
+     * @param str The original String like '2019-10-01 00:10:20 +0800'
+     * @return True if the String could be parsed
+     */
+    public boolean isParseable(CharSequence str) {
+        if (str == null || str.length() == 0) {
+            return false;
+        }
+        return this.isParseable(str, 0);
+    }
+
+    private boolean isParseable(CharSequence str, long start) {
         this.dt.reset();
         this.input = str;
-        this.parse(buildInput(str));
-        return dt.toOffsetDateTime();
+        boolean succeed = this.tryMatch(buildInput(str), WHOLE, dt, CATCHING, start) >= 0;
+        if (!succeed && fallback != null) {
+            return fallback.isParseable(str, context.start);
+        }
+        return succeed;
     }
 
     /**
-     * Execute datetime's parsing
+     * Check whether the specified String might be parsed by the cheap pre-filter, without regex matching.
+     * <p>
+     * False means it cannot be parsed definitely, but true doesn't mean it's parseable. The pre-filter checks
+     * the leading digits' length and the first char, which are derived from all rules.
+     *
+     * @param str The original String
+     * @return False if no rule could match its beginning
      */
-    private void parse(final CharArray input) {
-        matcher.reset(input);
+    public boolean mightBeDate(CharSequence str) {
+        if (str == null || str.length() == 0) {
+            return false;
+        }
+        boolean might = filter.mightMatch(str) && index.mightStart(buildInput(str), 0);
+        return might || (fallback != null && fallback.mightBeDate(str));
+    }
+
+    /**
+     * Find all dates in the specified free text by one pass, like logs, emails or html.
+     * <p>
+     * Every word's beginning is tried as date's beginning, the longest matching of rules is accepted if it's valid,
+     * ends at word's boundary and contains any digit, so words like 'may' or 'UTC' aren't treated as date.
+     * The found date is skipped, so the cost is linear to the text's length.
+     *
+     * @param text    The free text
+     * @param handler The handler to accept every found date
+     * @return The number of found dates
+     */
+    public int findAll(CharSequence text, DateSpanHandler handler) {
+        DateBuilder target = new DateBuilder();
+        int count = 0;
         int offset = 0;
+        int len = text.length();
+        while (offset < len) {
+            if (!isWordChar(text.charAt(offset)) || (offset > 0 && isWordChar(text.charAt(offset - 1)))) {
+                offset++;
+                continue;
+            }
+            int end = this.matchSpan(text, offset, target, SCANNING);
+            if (end > offset && (end == len || !isWordChar(text.charAt(end - 1)) || !isWordChar(text.charAt(end)))) {
+                end = trimEnd(text, offset, end);
+                if (containsDigit(text, offset, end)) {
+                    handler.handle(text, offset, end, target);
+                    count++;
+                    offset = end;
+                    continue;
+                }
+            }
+            offset++;
+        }
+        return count;
+    }
+
+    /**
+     * Count how many of the specified Strings could be parsed, it's useful for schema inference or data checking.
+     *
+     * @param strs The original Strings
+     * @return The number of parseable String
+     * @see #isParseable(CharSequence)
+     */
+    public int countParseable(Iterable<? extends CharSequence> strs) {
+        int count = 0;
+        for (CharSequence str : strs) {
+            if (this.isParseable(str)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Infer the format of the specified samples, and build a specialized parser for them.
+     * <p>
+     * All samples are parsed by this parser to find the most common rule chain, and the dd/mm or mm/dd order
+     * is decided by the samples' values if possible. The specialized parser contains the chain's rules only,
+     * so it's much cheaper than this parser. If some input deviates, it will fallback to this parser,
+     * which means the specialized parser should be used in the same thread with this parser.
+     *
+     * @param samples Some datetime strings of the same format, like one column's values
+     * @return The specialized parser
+     */
+    public DateParser specialize(Iterable<? extends CharSequence> samples) {
+        Map<List<String>, Integer> chainCounts = new HashMap<>();
+        Map<List<String>, int[]> chainDayOrMonths = new HashMap<>();
+        List<String> bestChain = null;
+        int bestCount = 0;
+        List<String> trace = context.trace = new ArrayList<>();
+        int[] traceDayOrMonth = context.dayOrMonth;
+        try {
+            for (CharSequence sample : samples) {
+                trace.clear();
+                traceDayOrMonth[0] = 0;
+                traceDayOrMonth[1] = 0;
+                if (!this.isParseable(sample) || trace.isEmpty()) {
+                    continue;
+                }
+                List<String> chain = new ArrayList<>(trace);
+                int count = chainCounts.merge(chain, 1, Integer::sum);
+                int[] dayOrMonth = chainDayOrMonths.computeIfAbsent(chain, k -> new int[2]);
+                dayOrMonth[0] = Math.max(dayOrMonth[0], traceDayOrMonth[0]);
+                dayOrMonth[1] = Math.max(dayOrMonth[1], traceDayOrMonth[1]);
+                if (count > bestCount) {
+                    bestChain = chain;
+                    bestCount = count;
+                }
+            }
+        } finally {
+            context.trace = null;
+        }
+        if (bestChain == null) {
+            throw new IllegalArgumentException("None of the samples could be parsed");
+        }
+        // prefer mm/dd only if the samples cannot tell
+        boolean monthFirst = this.preferMonthFirst;
+        int[] dayOrMonth = chainDayOrMonths.get(bestChain);
+        if (dayOrMonth[0] > 12 && dayOrMonth[1] <= 12) {
+            monthFirst = false;
+        } else if (dayOrMonth[1] > 12 && dayOrMonth[0] <= 12) {
+            monthFirst = true;
+        }
+        // keep rules' original order
+        List<String> chainRules = new ArrayList<>();
+        Set<String> chainStdRules = new HashSet<>();
+        Map<String, RuleHandler> chainCstRules = new HashMap<>();
+        Map<String, RuleFamily> chainFamilies = new HashMap<>();
+        for (String rule : table.rules) {
+            if (!bestChain.contains(rule)) {
+                continue;
+            }
+            chainRules.add(rule);
+            RulePlan plan = table.plan(rule);
+            if (plan.handler == null) {
+                chainStdRules.add(rule);
+            } else {
+                chainCstRules.put(rule, plan.handler);
+            }
+            if (plan.family != null) {
+                chainFamilies.put(rule, plan.family);
+            }
+        }
+        DateParser parser = new DateParser(chainRules, chainStdRules, chainCstRules, chainFamilies, monthFirst);
+        parser.fallback = this;
+        parser.setMetrics(this.metrics);
+        return parser;
+    }
+
+    /**
+     * Create an IncrementalParser for the sorted stream like logs or metrics, which reuses the previous input's
+     * parsing if only some digits changed. It uses this parser for the full parsing,
+     * so it should be used in the same thread with this parser.
+     *
+     * @return IncrementalParser
+     */
+    public IncrementalParser incremental() {
+        return new IncrementalParser(this);
+    }
+
+    /**
+     * Check whether the changed digits may change the matched rules, then the input couldn't be parsed incrementally.
+     */
+    boolean isDigitSensitive() {
+        return table.digitSensitive;
+    }
+
+    /**
+     * Parse the specified String like parse(str), and record the parsed fields' spans into the recorder.
+     *
+     * @return The DateBuilder which holds the result, it's the fallback parser's if this parser failed
+     */
+    DateBuilder parse(CharSequence str, IncrementalParser recorder) {
+        context.recorder = recorder;
+        try {
+            DateBuilder result = this.parse(str);
+            if (result != dt) {
+                recorder.recordFallback();
+            }
+            return result;
+        } finally {
+            context.recorder = null;
+        }
+    }
+
+    /**
+     * Parse the specified samples, and count every matched rule's hits, the failed samples are ignored.
+     */
+    Map<String, Integer> countRuleHits(Iterable<? extends CharSequence> samples) {
+        Map<String, Integer> hits = new HashMap<>();
+        List<String> trace = context.trace = new ArrayList<>();
+        try {
+            for (CharSequence sample : samples) {
+                trace.clear();
+                if (!this.isParseable(sample)) {
+                    continue;
+                }
+                for (String rule : trace) {
+                    hits.merge(rule, 1, Integer::sum);
+                }
+            }
+        } finally {
+            context.trace = null;
+        }
+        return hits;
+    }
+
+    /**
+     * Setup the parser which would be used if this parser failed.
+     */
+    void setFallback(DateParser fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Execute datetime's parsing, fallback if failed, and return the DateBuilder which holds the result.
+     */
+    DateBuilder parse(final CharSequence str) {
+        return this.parse(str, 0L);
+    }
+
+    private DateBuilder parse(final CharSequence str, final long start) {
+        this.dt.reset();
+        this.input = str;
+        if (this.tryMatch(buildInput(str), WHOLE, dt, 0, start) >= 0) {
+            return dt;
+        }
+        if (fallback != null) {
+            return fallback.parse(str, context.start);
+        }
+        throw error();
+    }
+
+    /**
+     * Execute the matching with metrics and JFR events' recording, it records the error if failed.
+     * <p>
+     * If the fallback parser would retry the failed matching, the failure isn't recorded into metrics,
+     * and the caller passes the start time in {@link Context#start} to the fallback, so every parsing is counted once.
+     *
+     * @param from  The offset to match the longest prefix from, or {@link #WHOLE} to match the whole input
+     * @param flags The flags like {@link #CATCHING} and {@link #SCANNING}
+     * @param start The start time of the failed parsing which falls back to this parser, 0 means none
+     * @return The end offset of matching, or -1 if failed
+     */
+    private int tryMatch(final CharArray input, final int from, final DateBuilder dt, final int flags, long start) {
+        Context context = this.context;
+        context.start = start;
+        boolean recording = ParseEvents.isParseEnabled();
+        if (metrics == null && !recording) {
+            return this.match(input, from, dt, flags);
+        }
+        ParseMetrics.Stripe stripe = metrics == null ? null : metrics.stripe();
+        Object event = recording ? ParseEvents.beginParse() : null;
+        if (start == 0) {
+            context.start = start = System.nanoTime();
+        }
+        int end = -1;
+        boolean thrown = true;
+        context.stripe = stripe;
+        context.matchedRules = recording ? new ArrayList<>() : null;
+        try {
+            end = this.match(input, from, dt, flags);
+            thrown = false;
+            return end;
+        } finally {
+            boolean succeed = end >= 0;
+            String failure = succeed ? null : errorReason;
+            int failureOffset = errorOffset;
+            if (thrown) {
+                failure = ParseMetrics.HANDLER_ERROR;
+                failureOffset = matcher.start();
+            }
+            boolean retried = !succeed && fallback != null && !thrown; // the fallback parser records it
+            if (!retried && (succeed || (flags & SCANNING) == 0)) {
+                if (stripe != null) {
+                    if (!succeed) {
+                        stripe.failure(failure, failureOffset);
+                    }
+                    stripe.latency(System.nanoTime() - start);
+                }
+                if (recording) {
+                    String reason = succeed ? null : ParseMetrics.category(failure);
+                    ParseEvents.endParse(event, start, this.input, context.matchedRules, reason, failureOffset);
+                }
+            }
+            context.stripe = null;
+            context.matchedRules = null;
+        }
+    }
+
+    /**
+     * Match the input by rules, and parse the matched fields.
+     *
+     * @param from  The offset to match the longest prefix from, or {@link #WHOLE} to match the whole input
+     * @param flags The flags like {@link #CATCHING}
+     * @return The end offset of matching, or -1 if failed
+     */
+    private int match(final CharArray input, final int from, final DateBuilder dt, final int flags) {
+        boolean whole = from == WHOLE;
+        int begin = whole ? 0 : from;
+        if (whole && epochPlans != null && this.matchEpoch(input, dt)) {
+            return input.length();
+        }
+        if ((flags & CATCHING) != 0 && !filter.mightMatch(input.src, begin)) {
+            fail(begin, null); // same as the regex's mismatching at the beginning
+            return -1;
+        }
+        int offset;
+        try {
+            offset = this.matchFrom(input, begin, dt);
+        } catch (RuntimeException e) {
+            if ((flags & CATCHING) == 0) {
+                throw e;
+            }
+            fail(matcher.start(), ParseMetrics.HANDLER_ERROR); // thrown by customized RuleHandler
+            return -1;
+        }
+        if (offset < 0) {
+            return -1;
+        }
+        if (offset == begin) {
+            fail(offset, null);
+            return -1;
+        }
+        if (whole && offset != input.length()) {
+            fail(offset, null);
+            return -1;
+        }
+        return offset;
+    }
+
+    /**
+     * Parse the all-digit input like '1384216367189' by its length directly, without regex matching.
+     *
+     * @return False if the input isn't epoch, then it should be matched by rules
+     */
+    private boolean matchEpoch(final CharArray input, final DateBuilder dt) {
+        final int len = input.length();
+        final RulePlan plan;
+        if (len >= epochPlans.length || (plan = epochPlans[len]) == null) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char ch = input.src.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        this.hit(plan);
+        // same as parseStandard's UNIXSECOND, MILLISECOND, MICROSECOND and NANOSECOND
+        int nsLen = len == 10 ? 0 : len == 16 ? 6 : len == 19 ? 9 : 3;
+        dt.unixsecond = parseNum(input, 0, len - nsLen);
+        if (nsLen > 0) {
+            dt.ns = parseNum(input, len - nsLen, len) * NSS[nsLen - 1];
+        }
+        if (context.recorder != null) {
+            int field = nsLen == 0 ? RulePlan.UNIXSECOND : nsLen == 6 ? RulePlan.MICROSECOND
+                    : nsLen == 9 ? RulePlan.NANOSECOND : RulePlan.MILLISECOND;
+            context.recorder.record(field, 0, len);
+        }
+        return true;
+    }
+
+    /**
+     * Notify the matched rule to the current call's observers.
+     */
+    private void hit(RulePlan plan) {
+        Context context = this.context;
+        if (context.trace != null) {
+            context.trace.add(plan.rule);
+        }
+        if (context.stripe != null) {
+            context.stripe.hit(metricsIds[plan.id]);
+        }
+        if (context.matchedRules != null) {
+            context.matchedRules.add(plan.rule);
+        }
+    }
+
+    /**
+     * Match rules from the specified offset until no rule could match, and parse the matched fields.
+     *
+     * @return The end offset of matching, or -1 if any matched field is invalid
+     */
+    private int matchFrom(final CharArray input, int offset, final DateBuilder dt) {
         int oldEnd = -1;
-        while (matcher.find(offset)) {
+        matcher.reset(input);
+        while (index.mightStart(input, offset) && matcher.find(offset)) {
             if (oldEnd == matcher.end()) {
-                throw error(offset, "empty matching at " + offset);
+                fail(offset, "empty matching at ");
+                return -1;
             }
-            if (standardRules.contains(matcher.re())) {
-                this.parseStandard(input, offset);
+            RulePlan plan = table.plan(matcher.re());
+            this.hit(plan);
+            if (plan.handler == null) {
+                if (!this.parseStandard(input, offset, dt, plan.fields(matcher))) {
+                    return -1;
+                }
             } else {
-                RuleHandler handler = customizedRuleMap.get(matcher.re());
-                handler.handle(input, matcher, dt);
+                plan.handler.handle(input, matcher, dt);
+                if (context.recorder != null) {
+                    context.recorder.recordHandler(plan);
+                }
             }
             offset = matcher.end();
             oldEnd = offset;
         }
-        if (offset != input.length()) {
-            throw error(offset);
+        return offset;
+    }
+
+    /**
+     * Parse the longest date at the specified offset of text into the DateBuilder, fallback if failed.
+     *
+     * @return The end offset of date, or -1 if no date found
+     */
+    private int matchPrefix(final CharSequence text, final int from, final DateBuilder target, final int flags,
+                            final long start) {
+        target.reset();
+        if (text != null && from == text.length()) {
+            return -1;
         }
+        this.input = text;
+        int end = this.tryMatch(buildInput(text), from, target, flags | CATCHING, start);
+        if (end > from) {
+            target.prepare();
+            return end;
+        }
+        if (fallback != null) {
+            return fallback.matchPrefix(text, from, target, flags, context.start);
+        }
+        return -1;
     }
 
     /**
-     * Parse datetime use standard rules.
+     * Parse the longest date like matchPrefix, but the zone name like '(CEST)' is matched greedily,
+     * so it may run over the following text's brackets, like '(CEST) to bob (admin)'.
+     * The date is matched again until the first closing bracket in this case.
+     *
+     * @return The end offset of date, or -1 if no date found
      */
-    void parseStandard(CharArray input, int offset) {
-        for (int index = 1; index <= matcher.groupCount(); index++) {
-            final String groupName = matcher.groupName(index);
+    private int matchSpan(final CharSequence text, final int from, final DateBuilder target, final int flags) {
+        int end = this.matchPrefix(text, from, target, flags, 0);
+        if (end <= from || text.charAt(end - 1) != ')') {
+            return end;
+        }
+        int open = indexOf(text, from, end, '(');
+        int close = open < 0 ? -1 : indexOf(text, open, end - 1, ')');
+        if (close < 0) {
+            return end;
+        }
+        if (this.matchPrefix(text.subSequence(0, close + 1), from, target, flags, 0) == close + 1) {
+            return close + 1;
+        }
+        return this.matchPrefix(text, from, target, flags, 0);
+    }
+
+    /**
+     * Parse datetime use standard rules, fields are the precompiled field code of every group.
+     */
+    boolean parseStandard(CharArray input, int offset, DateBuilder dt, int[] fields) {
+        for (int index = 1; index < fields.length; index++) {
+            final int field = fields[index];
             final int startOff = matcher.start(index);
             final int endOff = matcher.end(index);
-            if (groupName == null) {
-                throw error(offset, "Hit invalid standard rule: " + matcher.re());
+            if (field == RulePlan.UNNAMED) {
+                return failRule(offset);
             }
             if (startOff == -1 && endOff == -1) {
                 continue;
             }
-            switch (groupName) {
-                case "week":
-                    dt.week = parseWeek(input, startOff);
-                    break;
-                case "year":
-                    dt.year = parseYear(input, startOff, endOff);
-                    break;
-                case "month":
-                    dt.month = parseMonth(input, startOff, endOff);
-                    if (dt.month <= 0 || dt.month > 12) {
-                        throw error(startOff, "Invalid month at " + startOff);
-                    }
-                    break;
-                case "day":
-                    dt.day = parseNum(input, startOff, endOff);
-                    if (dt.day <= 0 || dt.day > 31) {
-                        throw error(startOff, "Invalid day at " + startOff);
-                    }
-                    break;
-                case "hour":
-                    dt.hour = parseNum(input, startOff, endOff);
-                    if (dt.hour >= 24) {
-                        throw error(startOff, "Invalid hour at " + startOff);
-                    }
-                    break;
-                case "minute":
-                    dt.minute = parseNum(input, startOff, endOff);
-                    if (dt.minute >= 60) {
-                        throw error(startOff, "Invalid minute at " + startOff);
-                    }
-                    break;
-                case "second":
-                    dt.second = parseNum(input, startOff, endOff);
-                    if (dt.second >= 60) {
-                        throw error(startOff, "Invalid second at " + startOff);
-                    }
-                    break;
-                case "ns":
-                    dt.ns = parseNano(input, startOff, endOff);
-                    break;
-                case "m":
-                    if (input.charAt(startOff) == 'p') {
-                        dt.pm = true;
-                    } else {
-                        dt.am = true;
-                    }
-                    break;
-                case "zero":
-                    dt.zoneOffsetSetted = true;
-                    dt.zoneOffset = 0;
-                    break;
-                case "zoneOffset":
-                    dt.zoneOffsetSetted = true;
-                    dt.zoneOffset = parseZoneOffset(input, startOff, endOff);
-                    if (dt.zoneOffset < -1080 || dt.zoneOffset > 1080) {
-                        throw error(startOff, "Invalid ZoneOffset at " + startOff);
-                    }
-                    break;
-                case "zoneName":
-                    // don't support by now
-                    break;
-                case "dayOrMonth":
-                    parseDayOrMonth(input, startOff, endOff);
-                    break;
-                case "unixsecond":
-                    dt.unixsecond = parseNum(input, startOff, startOff + 10);
-                    break;
-                case "millisecond":
-                    dt.unixsecond = parseNum(input, startOff, endOff - 3);
-                    dt.ns = parseNum(input, endOff - 3, endOff) * 1000000;
-                    break;
-                case "microsecond":
-                    dt.unixsecond = parseNum(input, startOff, endOff - 6);
-                    dt.ns = parseNum(input, endOff - 6, endOff) * 1000;
-                    break;
-                case "nanosecond":
-                    dt.unixsecond = parseNum(input, startOff, endOff - 9);
-                    dt.ns = parseNum(input, endOff - 9, endOff);
-                    break;
-                default:
-                    throw error(offset, "Hit invalid standard rule: " + matcher.re());
+            if (!this.parseField(input, offset, dt, field, startOff, endOff)) {
+                return false;
+            }
+            if (context.recorder != null) {
+                context.recorder.record(field, startOff, endOff);
             }
         }
+        return true;
+    }
+
+    /**
+     * Parse one group of standard rule into DateBuilder, return false and record the error if it's invalid.
+     */
+    boolean parseField(CharArray input, int offset, DateBuilder dt, int field, int startOff, int endOff) {
+        switch (field) {
+            case RulePlan.WEEK:
+                dt.week = parseWeek(input, startOff);
+                if (dt.week < 0) {
+                    return fail(startOff, "Invalid week at ");
+                }
+                break;
+            case RulePlan.YEAR:
+                dt.year = parseYear(input, startOff, endOff);
+                if (dt.year < 0) {
+                    return fail(startOff, "Invalid year at ");
+                }
+                break;
+            case RulePlan.MONTH:
+                dt.month = parseMonth(input, startOff, endOff);
+                if (dt.month <= 0 || dt.month > 12) {
+                    return fail(startOff, "Invalid month at ");
+                }
+                break;
+            case RulePlan.DAY:
+                dt.day = parseNum(input, startOff, endOff);
+                if (dt.day <= 0 || dt.day > 31) {
+                    return fail(startOff, "Invalid day at ");
+                }
+                break;
+            case RulePlan.HOUR:
+                dt.hour = parseNum(input, startOff, endOff);
+                if (dt.hour >= 24) {
+                    return fail(startOff, "Invalid hour at ");
+                }
+                break;
+            case RulePlan.MINUTE:
+                dt.minute = parseNum(input, startOff, endOff);
+                if (dt.minute >= 60) {
+                    return fail(startOff, "Invalid minute at ");
+                }
+                break;
+            case RulePlan.SECOND:
+                dt.second = parseNum(input, startOff, endOff);
+                if (dt.second >= 60) {
+                    return fail(startOff, "Invalid second at ");
+                }
+                break;
+            case RulePlan.NS:
+                dt.ns = parseNano(input, startOff, endOff);
+                break;
+            case RulePlan.M:
+                if (input.charAt(startOff) == 'p') {
+                    dt.pm = true;
+                } else {
+                    dt.am = true;
+                }
+                break;
+            case RulePlan.ZERO:
+                dt.zoneOffsetSetted = true;
+                dt.zoneOffset = 0;
+                break;
+            case RulePlan.ZONE_OFFSET:
+                dt.zoneOffsetSetted = true;
+                dt.zoneOffset = parseZoneOffset(input, startOff, endOff);
+                if (dt.zoneOffset < -1080 || dt.zoneOffset > 1080) {
+                    return fail(startOff, "Invalid ZoneOffset at ");
+                }
+                break;
+            case RulePlan.ZONE_NAME:
+                // don't support by now
+                break;
+            case RulePlan.DAY_OR_MONTH:
+                if (!parseDayOrMonth(input, startOff, endOff, dt)) {
+                    return false;
+                }
+                break;
+            case RulePlan.UNIXSECOND:
+                dt.unixsecond = parseNum(input, startOff, startOff + 10);
+                break;
+            case RulePlan.MILLISECOND:
+                dt.unixsecond = parseNum(input, startOff, endOff - 3);
+                dt.ns = parseNum(input, endOff - 3, endOff) * 1000000;
+                break;
+            case RulePlan.MICROSECOND:
+                dt.unixsecond = parseNum(input, startOff, endOff - 6);
+                dt.ns = parseNum(input, endOff - 6, endOff) * 1000;
+                break;
+            case RulePlan.NANOSECOND:
+                dt.unixsecond = parseNum(input, startOff, endOff - 9);
+                dt.ns = parseNum(input, endOff - 9, endOff);
+                break;
+            default:
+                return failRule(offset);
+        }
+        return true;
     }
 
     /**
      * Parse an subsequence which represent dd/mm or mm/dd, it should be more smart for different locales.
      */
-    void parseDayOrMonth(CharArray input, int from, int to) {
-        char next = input.data[from + 1];
+    boolean parseDayOrMonth(CharArray input, int from, int to, DateBuilder dt) {
+        char next = input.charAt(from + 1);
         int a, b;
         if (next < '0' || next > '9') {
             a = parseNum(input, from, from + 1);
@@ -245,7 +883,11 @@ public final class DateParser {
             b = parseNum(input, from + 3, to);
         }
         if (a > 31 || b > 31 || a == 0 || b == 0 || (a > 12 && b > 12)) {
-            throw error(from, "Invalid DayOrMonth at " + from);
+            return fail(from, "Invalid DayOrMonth at ");
+        }
+        if (context.trace != null) {
+            context.dayOrMonth[0] = a;
+            context.dayOrMonth[1] = b;
         }
         if (b > 12 || (preferMonthFirst && a <= 12)) {
             dt.month = a;
@@ -254,10 +896,11 @@ public final class DateParser {
             dt.day = a;
             dt.month = b;
         }
+        return true;
     }
 
     /**
-     * Parse an subsequence which represent year, like '2019', '19' etc
+     * Parse an subsequence which represent year, like '2019', '19' etc, return -1 if invalid.
      */
     int parseYear(CharArray input, int from, int to) {
         switch (to - from) {
@@ -269,7 +912,7 @@ public final class DateParser {
             case 0:
                 return 0;
             default:
-                throw error(from, "Invalid year at " + from);
+                return -1;
         }
     }
 
@@ -277,7 +920,7 @@ public final class DateParser {
      * Parse an subsequence which represent the offset of timezone, like '+0800', '+08', '+8:00', '+08:00' etc
      */
     int parseZoneOffset(CharArray input, int from, int to) {
-        boolean neg = input.data[from] == '-';
+        boolean neg = input.charAt(from) == '-';
         from++;
         // parse hour
         int hour;
@@ -314,10 +957,10 @@ public final class DateParser {
     }
 
     /**
-     * Parse an subsequence which represent week, like 'Monday', 'mon' etc
+     * Parse an subsequence which represent week, like 'Monday', 'mon' etc, return -1 if invalid.
      */
     int parseWeek(CharArray input, int from) {
-        switch (input.data[from]) {
+        switch (input.charAt(from)) {
             case 'm':
                 return 1; // monday
             case 'w':
@@ -325,7 +968,7 @@ public final class DateParser {
             case 'f':
                 return 5; // friday
             case 't':
-                switch (input.data[from + 1]) {
+                switch (input.charAt(from + 1)) {
                     case 'u':
                         return 2; // tuesday
                     case 'h':
@@ -333,7 +976,7 @@ public final class DateParser {
                 }
                 break;
             case 's':
-                switch (input.data[from + 1]) {
+                switch (input.charAt(from + 1)) {
                     case 'a':
                         return 6; // saturday
                     case 'u':
@@ -341,19 +984,19 @@ public final class DateParser {
                 }
                 break;
         }
-        throw error(from, "Invalid week at " + from);
+        return -1;
     }
 
     /**
-     * Parse an subsequence which represent month, like '12', 'Feb' etc
+     * Parse an subsequence which represent month, like '12', 'Feb' etc, return -1 if invalid.
      */
     int parseMonth(CharArray input, int from, int to) {
         if (to - from <= 2) {
             return parseNum(input, from, to);
         }
-        switch (input.data[from]) {
+        switch (input.charAt(from)) {
             case 'a':
-                switch (input.data[from + 1]) {
+                switch (input.charAt(from + 1)) {
                     case 'p':
                         return 4; // april
                     case 'u':
@@ -361,10 +1004,10 @@ public final class DateParser {
                 }
                 break;
             case 'j':
-                if (input.data[from + 1] == 'a') {
+                if (input.charAt(from + 1) == 'a') {
                     return 1; // january
                 }
-                switch (input.data[from + 2]) {
+                switch (input.charAt(from + 2)) {
                     case 'n':
                         return 6; // june
                     case 'l':
@@ -374,7 +1017,7 @@ public final class DateParser {
             case 'f':
                 return 2; // february
             case 'm':
-                switch (input.data[from + 2]) {
+                switch (input.charAt(from + 2)) {
                     case 'r':
                         return 3; // march
                     case 'y':
@@ -390,61 +1033,152 @@ public final class DateParser {
             case 'd':
                 return 12; // december
         }
-        throw error(from, "Invalid month at " + from);
+        return -1;
+    }
+
+    /**
+     * Record the failure's reason, the message will be built only if an exception is needed.
+     */
+    private boolean fail(int offset, String reason) {
+        this.errorOffset = offset;
+        this.errorReason = reason;
+        this.errorRule = null;
+        return false;
     }
 
-    private DateTimeParseException error(int offset) {
-        return error(offset, String.format("Text %s cannot parse at %d", input, offset));
+    private boolean failRule(int offset) {
+        this.errorOffset = offset;
+        this.errorReason = "Hit invalid standard rule: ";
+        this.errorRule = matcher.re();
+        return false;
     }
 
-    private DateTimeParseException error(int offset, String msg) {
-        return new DateTimeParseException(msg, input, offset);
+    private DateTimeParseException error() {
+        String msg;
+        if (errorReason == null) {
+            msg = String.format("Text %s cannot parse at %d", input, errorOffset);
+        } else if (errorRule != null) {
+            msg = errorReason + errorRule;
+        } else {
+            msg = errorReason + errorOffset;
+        }
+        return new DateTimeParseException(msg, input, errorOffset);
     }
 
     /**
-     * Parse an subsequence which represent an number, like '1234'
+     * Parse an subsequence which represent an number, like '1234'.
      */
     static int parseNum(CharArray input, int from, int to) {
         int num = 0;
         for (int i = from; i < to; i++) {
-            num = num * 10 + (input.data[i] - '0');
+            num = num * 10 + (input.charAt(i) - '0');
         }
         return num;
     }
 
-    static CharArray buildInput(String str) {
+    private static boolean isWordChar(char ch) {
+        return (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    /**
+     * Trim the trailing symbols which are matched by rules' separator, like '2019-10-01, ' or '12/31/2019<',
+     * the closing bracket is kept only if its opening bracket is in the date, like '(CEST)'.
+     */
+    private static int trimEnd(CharSequence text, int from, int to) {
+        while (to > from) {
+            char ch = text.charAt(to - 1);
+            if (ch >= 128 || isWordChar(ch)) {
+                break;
+            }
+            if ((ch == ')' || ch == ']') && indexOf(text, from, to, ch == ')' ? '(' : '[') >= 0) {
+                break;
+            }
+            to--;
+        }
+        return to;
+    }
+
+    private static int indexOf(CharSequence text, int from, int to, char ch) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean containsDigit(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char ch = text.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check the input and wrap it by the reusable case-folding view, the input isn't copied.
+     */
+    private CharArray buildInput(CharSequence str) {
         if (str == null) {
             throw new NullPointerException("str cannot be null");
         }
         if (str.length() == 0) {
             throw new IllegalArgumentException("str cannot be empty");
         }
-        char[] chars = str.toCharArray();
-        for (int i = 0; i < chars.length; i++) {
-            char ch = chars[i];
-            if (ch >= 'A' && ch <= 'Z') {
-                chars[i] = (char) (ch + 32);
-            }
-        }
-        return new CharArray(chars);
+        this.chars.src = str;
+        return this.chars;
+    }
+
+    /**
+     * The mutable state of the current call. The trace and recorder are set by the sampling and incremental methods
+     * for their own calls, the metrics' part is reset by every matching.
+     */
+    private static final class Context {
+        /**
+         * The matched rules of every sample, used by specialize and countRuleHits
+         */
+        List<String> trace;
+        /**
+         * The traced sample's dd/mm or mm/dd values
+         */
+        final int[] dayOrMonth = new int[2];
+        /**
+         * The recorder of parsed fields' spans, used by IncrementalParser
+         */
+        IncrementalParser recorder;
+        ParseMetrics.Stripe stripe;
+        List<String> matchedRules;
+        /**
+         * The start time of the current matching, it's passed to the fallback parser if failed, 0 means unmeasured
+         */
+        long start;
     }
 
+    /**
+     * An lowercase view of the original input, 'A'-'Z' are folded on reading, because all rules are lowercase.
+     */
     static class CharArray implements CharSequence {
 
-        char[] data;
+        CharSequence src;
 
-        public CharArray(char[] data) {
-            this.data = data;
+        public CharArray(CharSequence src) {
+            this.src = src;
         }
 
         @Override
         public int length() {
-            return data.length;
+            return src.length();
         }
 
         @Override
         public char charAt(int index) {
-            return data[index];
+            char ch = src.charAt(index);
+            if (ch >= 'A' && ch <= 'Z') {
+                ch = (char) (ch + 32);
+            }
+            return ch;
         }
 
         @Override
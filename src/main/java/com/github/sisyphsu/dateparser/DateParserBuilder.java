@@ -1,5 +1,7 @@
 package com.github.sisyphsu.dateparser;
 
+import com.github.sisyphsu.retree.ReMatcher;
+
 import java.util.*;
 
 /**
@@ -36,118 +38,134 @@ public final class DateParserBuilder {
             "mon", "tue", "wed", "thu", "fri", "sat", "sun",
     };
 
+    static final String UNIXSECOND_RULE = "^(?<unixsecond>\\d{10})$";
+    static final String MILLISECOND_RULE = "^(?<millisecond>\\d{11,13})$";
+    static final String MICROSECOND_RULE = "^(?<microsecond>\\d{16})$";
+    static final String NANOSECOND_RULE = "^(?<nanosecond>\\d{19})$";
+
     static final List<String> STANDARD_RULES = new ArrayList<>();
 
     static final List<String> CUSTOMIZED_RULES = new ArrayList<>();
     static final Map<String, RuleHandler> CUSTOMIZED_RULE_MAP = new HashMap<>();
 
+    static final Map<String, RuleFamily> RULE_FAMILY_MAP = new HashMap<>();
+
     static {
         // support day of week, like 'Mon' or 'Monday,'
         for (String week : weeks) {
-            register(String.format("(?<week>%s)\\W*", week));
+            register(RuleFamily.WEEKDAY, String.format("(?<week>%s)\\W*", week));
         }
 
         for (String month : months) {
             // month-word at first, like 'may. 8th, 2009,' or 'may. 8th, 09'
-            register(String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W+(?<year>\\d{4})\\b", month));
-            register(String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W+(?<year>\\d{2})$", month));
-            register(String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W+(?<year>\\d{2})[^:\\d]", month));
-            register(String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\b", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W+(?<year>\\d{4})\\b", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W+(?<year>\\d{2})$", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W+(?<year>\\d{2})[^:\\d]", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\b", month));
 
             // month-word at middle, like '8th, may, 2009,' or '8th-may-09'
-            register(String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W+(?<year>\\d{4})\\b", month));
-            register(String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W+(?<year>\\d{2})$", month));
-            register(String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W+(?<year>\\d{2})[^:\\d]", month));
-            register(String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W*", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W+(?<year>\\d{4})\\b", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W+(?<year>\\d{2})$", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W+(?<year>\\d{2})[^:\\d]", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<day>\\d{1,2})(?:th)?\\W+(?<month>%s)\\W*", month));
 
             // month-word at middle, like '2009-may-8th'
-            register(String.format("(?<year>\\d{4})\\W+(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W*", month));
+            register(RuleFamily.MONTH_WORD, String.format("(?<year>\\d{4})\\W+(?<month>%s)\\W+(?<day>\\d{1,2})(?:th)?\\W*", month));
         }
 
         // yyyy-MM-dd, yyyy/MM/dd...
-        register("(?<year>\\d{4})\\W{1}(?<month>\\d{1,2})\\W{1}(?<day>\\d{1,2})[^\\d]?");
+        register(RuleFamily.NUMERIC_DATE, "(?<year>\\d{4})\\W{1}(?<month>\\d{1,2})\\W{1}(?<day>\\d{1,2})[^\\d]?");
 
         // yyyy-MM, yyyy/MM...
-        register("^(?<year>\\d{4})\\W{1}(?<month>\\d{1,2})$");
+        register(RuleFamily.NUMERIC_DATE, "^(?<year>\\d{4})\\W{1}(?<month>\\d{1,2})$");
 
         // MM/dd/yyyy, dd/MM/yyyy
-        register("(?<dayOrMonth>\\d{1,2}\\W{1}\\d{1,2})\\W{1}(?<year>\\d{4})[^\\d]?");
+        register(RuleFamily.NUMERIC_DATE, "(?<dayOrMonth>\\d{1,2}\\W{1}\\d{1,2})\\W{1}(?<year>\\d{4})[^\\d]?");
 
         // dd/MM/yy, MM/dd/yy
-        register("(?<dayOrMonth>\\d{1,2}[./]\\d{1,2})[./](?<year>\\d{2})$");
-        register("(?<dayOrMonth>\\d{1,2}[./]\\d{1,2})[./](?<year>\\d{2})[^:\\d]");
+        register(RuleFamily.NUMERIC_DATE, "(?<dayOrMonth>\\d{1,2}[./]\\d{1,2})[./](?<year>\\d{2})$");
+        register(RuleFamily.NUMERIC_DATE, "(?<dayOrMonth>\\d{1,2}[./]\\d{1,2})[./](?<year>\\d{2})[^:\\d]");
 
         // yyyy
-        register(" ?(?<year>\\d{4})$");
+        register(RuleFamily.NUMERIC_DATE, " ?(?<year>\\d{4})$");
         // yyyyMM
-        register("^(?<year>\\d{4})(?<month>\\d{2})$");
+        register(RuleFamily.NUMERIC_DATE, "^(?<year>\\d{4})(?<month>\\d{2})$");
         // yyyyMMdd
-        register("^(?<year>\\d{4})(?<month>\\d{2})(?<day>\\d{2})$");
+        register(RuleFamily.NUMERIC_DATE, "^(?<year>\\d{4})(?<month>\\d{2})(?<day>\\d{2})$");
         // yyyyMMddhhmmss
-        register("^(?<year>\\d{4})(?<month>\\d{2})(?<day>\\d{2})(?<hour>\\d{2})(?<minute>\\d{2})(?<second>\\d{2})$");
+        register(RuleFamily.NUMERIC_DATE, "^(?<year>\\d{4})(?<month>\\d{2})(?<day>\\d{2})(?<hour>\\d{2})(?<minute>\\d{2})(?<second>\\d{2})$");
 
         // unixtime(10)
-        register("^(?<unixsecond>\\d{10})$");
+        register(RuleFamily.EPOCH, UNIXSECOND_RULE);
 
         // millisecond(13)
-        register("^(?<millisecond>\\d{11,13})$");
+        register(RuleFamily.EPOCH, MILLISECOND_RULE);
 
         // microsecond(16)
-        register("^(?<microsecond>\\d{16})$");
+        register(RuleFamily.EPOCH, MICROSECOND_RULE);
 
         // nanosecond(19)
-        register("^(?<nanosecond>\\d{19})$");
+        register(RuleFamily.EPOCH, NANOSECOND_RULE);
 
         // at hh:mm:ss.SSSSZ
-        register("\\W*(?:at )?(?<hour>\\d{1,2}):(?<minute>\\d{1,2})(?::(?<second>\\d{1,2}))?(?:[.,](?<ns>\\d{1,9}))?(?<zero>z)?");
+        register(RuleFamily.TIME, "\\W*(?:at )?(?<hour>\\d{1,2}):(?<minute>\\d{1,2})(?::(?<second>\\d{1,2}))?(?:[.,](?<ns>\\d{1,9}))?(?<zero>z)?");
 
         // +08:00
-        register(" ?(?<zoneOffset>[-+]\\d{1,2}:?(?:\\d{2})?)");
+        register(RuleFamily.ZONE_OFFSET, " ?(?<zoneOffset>[-+]\\d{1,2}:?(?:\\d{2})?)");
 
         // 12 o’clock
-        register(" ?(?<hour>\\d{1,2}) o’clock\\W*");
+        register(RuleFamily.OCLOCK, " ?(?<hour>\\d{1,2}) o’clock\\W*");
 
         // am, pm
-        register(" ?(?<m>am|pm)\\W*");
+        register(RuleFamily.AM_PM, " ?(?<m>am|pm)\\W*");
 
         // (CEST) (GMT Daylight Time)
-        register(" [(](?<zoneName>.+)[)]");
+        register(RuleFamily.ZONE_NAME, " [(](?<zoneName>.+)[)]");
 
         // support all languages' default TimeZone
         for (String zoneId : TimeZone.getAvailableIDs()) {
-            final TimeZone zone = TimeZone.getTimeZone(zoneId);
-            final RuleHandler handler = (cs, matcher, dt) -> dt.zone = zone;
+            final RuleHandler handler = new ZoneHandler(zoneId);
 
-            String zoneIdStr = zone.getID().toLowerCase();
-            register(String.format(" ?\\Q%s\\E", zoneIdStr), handler);
-            register(String.format(" ?\\Q[%s]\\E", zoneIdStr), handler);
+            String zoneIdStr = zoneId.toLowerCase();
+            register(RuleFamily.ZONE_ID, String.format(" ?\\Q%s\\E", zoneIdStr), handler);
+            register(RuleFamily.ZONE_ID, String.format(" ?\\Q[%s]\\E", zoneIdStr), handler);
         }
 
         // support others no-standard 'timezone'
-        register(" ?pdt", (cs, matcher, dt) -> dt.zone = TimeZone.getTimeZone("PST"));
-        register(" ?cest", (cs, matcher, dt) -> dt.zone = TimeZone.getTimeZone("CET"));
+        register(RuleFamily.ZONE_ID, " ?pdt", (cs, matcher, dt) -> dt.zone = TimeZone.getTimeZone("PST"));
+        register(RuleFamily.ZONE_ID, " ?cest", (cs, matcher, dt) -> dt.zone = TimeZone.getTimeZone("CET"));
 
         // MSK m=+0.000000001
-        register(" msk m=[+-]\\d\\.\\d+");
+        register(RuleFamily.GO_SUFFIX, " msk m=[+-]\\d\\.\\d+");
     }
 
-    static synchronized void register(String re) {
+    static synchronized void register(RuleFamily family, String re) {
         if (!STANDARD_RULES.contains(re)) {
             STANDARD_RULES.add(re);
         }
+        RULE_FAMILY_MAP.put(re, family);
     }
 
-    static synchronized void register(String re, RuleHandler handler) {
+    static synchronized void register(RuleFamily family, String re, RuleHandler handler) {
         if (!CUSTOMIZED_RULE_MAP.containsKey(re)) {
             CUSTOMIZED_RULES.add(re);
         }
         CUSTOMIZED_RULE_MAP.put(re, handler);
+        RULE_FAMILY_MAP.put(re, family);
     }
 
     private boolean preferMonthFirst = false;
+    private ParseMetrics metrics;
+    private List<String> retainedRules;
+    private final Set<RuleFamily> families = EnumSet.allOf(RuleFamily.class);
+    private boolean fallback;
     private final List<String> rules = new ArrayList<>();
     private final Set<String> standardRules = new HashSet<>();
     private final Map<String, RuleHandler> customizedRuleMap = new HashMap<>();
+    /**
+     * The family of predefined rules, the rule added by user is removed, even if it has the same regex
+     */
+    private final Map<String, RuleFamily> ruleFamilies = new HashMap<>();
 
     DateParserBuilder() {
         // predefined standard rules
@@ -156,6 +174,7 @@ public final class DateParserBuilder {
         // predefined customized rules
         this.rules.addAll(DateParserBuilder.CUSTOMIZED_RULES);
         this.customizedRuleMap.putAll(DateParserBuilder.CUSTOMIZED_RULE_MAP);
+        this.ruleFamilies.putAll(DateParserBuilder.RULE_FAMILY_MAP);
     }
 
     /**
@@ -169,6 +188,17 @@ public final class DateParserBuilder {
         return this;
     }
 
+    /**
+     * Record the built parsers' rule hits, failures and latency into the specified metrics.
+     *
+     * @param metrics The shared metrics, null means disable it
+     * @return This
+     */
+    public DateParserBuilder metrics(ParseMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     /**
      * Add an standard rule which could parse the specified subsequence.
      *
@@ -179,6 +209,7 @@ public final class DateParserBuilder {
         if (!standardRules.contains(rule)) {
             rules.add(rule);
             standardRules.add(rule);
+            ruleFamilies.remove(rule);
         }
         return this;
     }
@@ -195,16 +226,195 @@ public final class DateParserBuilder {
             rules.add(rule);
         }
         customizedRuleMap.put(rule, handler);
+        ruleFamilies.remove(rule);
         return this;
     }
 
+    /**
+     * Include the specified predefined rule families only, the others will be dropped before compiling.
+     *
+     * @param families The rule families to include
+     * @return This
+     */
+    public DateParserBuilder includeFamilies(RuleFamily... families) {
+        this.families.clear();
+        this.families.addAll(Arrays.asList(families));
+        return this;
+    }
+
+    /**
+     * Exclude the specified predefined rule families, they will be dropped before compiling.
+     * The smaller parser is faster to build and match, and use less memory.
+     *
+     * @param families The rule families to exclude, like {@link RuleFamily#ZONE_ID}
+     * @return This
+     */
+    public DateParserBuilder excludeFamilies(RuleFamily... families) {
+        this.families.removeAll(Arrays.asList(families));
+        return this;
+    }
+
+    /**
+     * Parse the specified corpus by an full parser, and retain the matched rules only, in their original order.
+     *
+     * @param corpus The representative datetime strings
+     * @return This
+     * @see #profile(Iterable, boolean)
+     */
+    public DateParserBuilder profile(Iterable<? extends CharSequence> corpus) {
+        return this.profile(corpus, false);
+    }
+
+    /**
+     * Parse the specified corpus by an full parser, and retain the matched rules only.
+     * <p>
+     * The reduced parser is much cheaper to build and match, but it cannot parse the formats which didn't appear
+     * in corpus, enable {@link #fallback(boolean)} if needed. The retained rules could be exported by
+     * {@link #getRules()}, and reused by {@link #retainRules(List)} at startup without corpus.
+     *
+     * @param corpus         The representative datetime strings
+     * @param frequencyOrder Sort rules by hit count, it may change the priority of overlapped rules
+     * @return This
+     */
+    public DateParserBuilder profile(Iterable<? extends CharSequence> corpus, boolean frequencyOrder) {
+        DateParser fullParser = new DateParser(this.fullRules(), standardRules, customizedRuleMap, ruleFamilies, preferMonthFirst);
+        Map<String, Integer> hits = fullParser.countRuleHits(corpus);
+        if (hits.isEmpty()) {
+            throw new IllegalArgumentException("None of the corpus could be parsed");
+        }
+        List<String> matchedRules = new ArrayList<>();
+        for (String rule : rules) {
+            if (hits.containsKey(rule)) {
+                matchedRules.add(rule);
+            }
+        }
+        if (frequencyOrder) {
+            // stable sort, rules with the same hit count keep their original order
+            matchedRules.sort((a, b) -> hits.get(b) - hits.get(a));
+        }
+        return this.retainRules(matchedRules);
+    }
+
+    /**
+     * Retain the specified rules only, in the specified order, the unknown rule will be ignored.
+     * <p>
+     * The retaining is applied at building, so the rule added after it only works in fallback parser.
+     *
+     * @param rules The rules to retain, like the exported {@link #getRules()}
+     * @return This
+     */
+    public DateParserBuilder retainRules(List<String> rules) {
+        this.retainedRules = new ArrayList<>(rules);
+        return this;
+    }
+
+    /**
+     * Fallback to the full parser with all rules if the retained rules cannot parse the input.
+     *
+     * @param fallback Enable fallback or not
+     * @return This
+     */
+    public DateParserBuilder fallback(boolean fallback) {
+        this.fallback = fallback;
+        return this;
+    }
+
+    /**
+     * Get the rules which would be used by the built parser, it could be exported after {@link #profile}.
+     *
+     * @return The rules in matching order
+     */
+    public List<String> getRules() {
+        List<String> result = new ArrayList<>();
+        for (String rule : retainedRules == null ? rules : retainedRules) {
+            if (!standardRules.contains(rule) && !customizedRuleMap.containsKey(rule)) {
+                continue;
+            }
+            if (this.isIncluded(rule)) {
+                result.add(rule);
+            }
+        }
+        return result;
+    }
+
     /**
      * Build the final DateParser instance.
      *
      * @return DateParser
      */
     public DateParser build() {
-        return new DateParser(rules, standardRules, customizedRuleMap, preferMonthFirst);
+        if (retainedRules == null) {
+            return this.buildFull();
+        }
+        List<String> subRules = this.getRules();
+        Set<String> subStdRules = new HashSet<>();
+        Map<String, RuleHandler> subCstRules = new HashMap<>();
+        for (String rule : subRules) {
+            if (standardRules.contains(rule)) {
+                subStdRules.add(rule);
+            } else {
+                subCstRules.put(rule, customizedRuleMap.get(rule));
+            }
+        }
+        DateParser parser = new DateParser(subRules, subStdRules, subCstRules, ruleFamilies, preferMonthFirst);
+        parser.setMetrics(metrics);
+        if (fallback) {
+            parser.setFallback(this.buildFull());
+        }
+        return parser;
+    }
+
+    private DateParser buildFull() {
+        DateParser parser = new DateParser(this.fullRules(), standardRules, customizedRuleMap, ruleFamilies, preferMonthFirst);
+        parser.setMetrics(metrics);
+        return parser;
+    }
+
+    /**
+     * Get all rules of the included families.
+     */
+    private List<String> fullRules() {
+        if (families.size() == RuleFamily.values().length) {
+            return rules;
+        }
+        List<String> result = new ArrayList<>();
+        for (String rule : rules) {
+            if (this.isIncluded(rule)) {
+                result.add(rule);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the specified rule's family is included, the rule without family is always included.
+     */
+    private boolean isIncluded(String rule) {
+        RuleFamily family = ruleFamilies.get(rule);
+        return family == null || families.contains(family);
+    }
+
+    /**
+     * The shared handler of one zone's rules, the TimeZone is loaded at the first hit, because most zones are
+     * never used, and every TimeZone holds its own transitions.
+     */
+    private static final class ZoneHandler implements RuleHandler {
+
+        private final String zoneId;
+        private volatile TimeZone zone;
+
+        ZoneHandler(String zoneId) {
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        public void handle(CharSequence chars, ReMatcher matcher, DateBuilder dt) {
+            TimeZone result = this.zone;
+            if (result == null) {
+                this.zone = result = TimeZone.getTimeZone(zoneId);
+            }
+            dt.zone = result;
+        }
     }
 
 }
@@ -1,5 +1,6 @@
 package com.github.sisyphsu.dateparser;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.Calendar;
@@ -59,6 +60,67 @@ public final class DateParserUtils {
         return dateParser.parseOffsetDateTime(str);
     }
 
+    /**
+     * Parse the specified String into Instant
+     *
+     * @param str Datetime string like '2019-10-01 00:10:20 +0800'
+     * @return Parsed datetime as Instant
+     */
+    public static synchronized Instant parseInstant(String str) {
+        return dateParser.parseInstant(str);
+    }
+
+    /**
+     * Parse the specified String into the seconds from 1970-01-01T00:00:00Z
+     *
+     * @param str Datetime string like '2019-10-01 00:10:20 +0800'
+     * @return Parsed datetime as epoch second
+     */
+    public static synchronized long parseEpochSecond(String str) {
+        return dateParser.parseEpochSecond(str);
+    }
+
+    /**
+     * Parse the specified String and normalize it into ISO-8601, same as parseOffsetDateTime(str).toString()
+     *
+     * @param str Datetime string like '2019-10-01 00:10:20 +0800'
+     * @return Normalized datetime like '2019-10-01T00:10:20+08:00'
+     */
+    public static synchronized String normalize(String str) {
+        return dateParser.normalize(str);
+    }
+
+    /**
+     * Check whether the specified String could be parsed, without building the final datetime.
+     *
+     * @param str Datetime string like '2019-10-01 00:10:20 +0800'
+     * @return True if it could be parsed
+     */
+    public static synchronized boolean isParseable(String str) {
+        return dateParser.isParseable(str);
+    }
+
+    /**
+     * Check whether the specified String might be parsed by the cheap pre-filter, without regex matching.
+     *
+     * @param str Datetime string like '2019-10-01 00:10:20 +0800'
+     * @return False if it cannot be parsed definitely
+     */
+    public static synchronized boolean mightBeDate(String str) {
+        return dateParser.mightBeDate(str);
+    }
+
+    /**
+     * Find all dates in the specified free text by one pass.
+     *
+     * @param text    The free text like logs, emails or html
+     * @param handler The handler to accept every found date
+     * @return The number of found dates
+     */
+    public static synchronized int findAll(CharSequence text, DateSpanHandler handler) {
+        return dateParser.findAll(text, handler);
+    }
+
     /**
      * Setup the current Utils prefer mm/dd or not.
      *
@@ -68,14 +130,26 @@ public final class DateParserUtils {
         dateParser.setPreferMonthFirst(preferMonthFirst);
     }
 
+    /**
+     * Setup the metrics which records the current Utils' rule hits, failures and latency.
+     *
+     * @param metrics The metrics, null means disable it
+     */
+    public static synchronized void setMetrics(ParseMetrics metrics) {
+        builder.metrics(metrics);
+        dateParser.setMetrics(metrics);
+    }
+
     /**
      * Register new standard parse rules, all captured group should have the specified names.
      *
      * @param re The regex of rule
      */
     public static synchronized void registerStandardRule(String re) {
+        Object event = ParseEvents.beginRegister();
         builder.addRule(re);
         dateParser = builder.build();
+        ParseEvents.endRegister(event, re, true);
     }
 
     /**
@@ -85,8 +159,10 @@ public final class DateParserUtils {
      * @param handler The handler for this rule
      */
     public static synchronized void registerCustomizedRule(String re, RuleHandler handler) {
+        Object event = ParseEvents.beginRegister();
         builder.addRule(re, handler);
         dateParser = builder.build();
+        ParseEvents.endRegister(event, re, false);
     }
 
 }
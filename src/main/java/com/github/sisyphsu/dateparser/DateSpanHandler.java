@@ -0,0 +1,22 @@
+package com.github.sisyphsu.dateparser;
+
+/**
+ * This class represents the handler of dates found in free text by {@link DateParser#findAll}.
+ *
+ * @author sulin
+ * @since 2026-10-19 21:42:18
+ */
+@FunctionalInterface
+public interface DateSpanHandler {
+
+    /**
+     * Accept one date which is substring[start, end) of the specified text
+     *
+     * @param text  The original text
+     * @param start The start offset of date, inclusive
+     * @param end   The end offset of date, exclusive
+     * @param dt    The parsed date, it will be reused for the next date
+     */
+    void handle(CharSequence text, int start, int end, DateBuilder dt);
+
+}
@@ -0,0 +1,353 @@
+package com.github.sisyphsu.dateparser;
+
+import java.time.Instant;
+
+/**
+ * IncrementalParser parses the sorted stream like logs or metrics, whose consecutive timestamps have the same shape,
+ * and share long prefix, like '2019-10-01 10:20:30.123' and '2019-10-01 10:20:31.456'.
+ * <p>
+ * It records the span of every parsed field at the full parsing. If the next input has the same length,
+ * and only changed some digits inside the numeric fields, it decodes the changed fields only, without regex matching.
+ * If only the time of day changed and the offset is fixed, the previous epoch is adjusted by the difference directly.
+ * Otherwise, it falls back to the full parsing of DateParser.
+ * <p>
+ * The rules are assumed to treat all digits alike, so the changed digits couldn't change the matched rules.
+ * If any rule contains literal digit like '2019' or '[0-5]', except the predefined zone rules,
+ * every input is parsed fully. The metrics and events aren't recorded for the reused parsing.
+ * <p>
+ * It's not thread-safe, and should be used in the same thread with its DateParser.
+ *
+ * @author sulin
+ * @since 2026-10-20 01:26:44
+ */
+public final class IncrementalParser {
+
+    /**
+     * The changed fields are marked by int's bits
+     */
+    private static final int MAX_FIELDS = 31;
+
+    private static final int W_WEEK = 1;
+    private static final int W_YEAR = 1 << 1;
+    private static final int W_MONTH = 1 << 2;
+    private static final int W_DAY = 1 << 3;
+    private static final int W_HOUR = 1 << 4;
+    private static final int W_MINUTE = 1 << 5;
+    private static final int W_SECOND = 1 << 6;
+    private static final int W_NS = 1 << 7;
+    private static final int W_EPOCH = 1 << 8;
+    private static final int W_OFFSET = 1 << 9;
+    private static final int W_AM_PM = 1 << 10;
+    /**
+     * The fields which could be adjusted on the previous epoch directly
+     */
+    private static final int W_TIME = W_HOUR | W_MINUTE | W_SECOND | W_NS;
+
+    private final DateParser parser;
+    private final boolean digitSensitive;
+    private final DateParser.CharArray input = new DateParser.CharArray(null);
+
+    /**
+     * The previous input, and the spans of its fields, only the decodable field could be changed
+     */
+    private char[] prev = new char[32];
+    private int prevLength = -1;
+    private int fieldCount;
+    private boolean reusable;
+    private final int[] fields = new int[MAX_FIELDS];
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private final boolean[] decodable = new boolean[MAX_FIELDS];
+
+    /**
+     * The previous result before am/pm's preparing, and the prepared one with its epoch
+     */
+    private final DateBuilder raw = new DateBuilder();
+    private final DateBuilder dt = new DateBuilder();
+    private long epochSecond;
+    private int secondOfDay;
+
+    private long reusedCount;
+
+    IncrementalParser(DateParser parser) {
+        this.parser = parser;
+        this.digitSensitive = parser.isDigitSensitive();
+    }
+
+    /**
+     * Parse the specified String into the seconds from 1970-01-01T00:00:00Z
+     *
+     * @param str The original String like '2019-10-01 10:20:30.123'
+     * @return The parsed epoch second
+     */
+    public long parseEpochSecond(CharSequence str) {
+        this.parse(str);
+        return epochSecond;
+    }
+
+    /**
+     * Parse the specified String into the millis from 1970-01-01T00:00:00Z
+     *
+     * @param str The original String like '2019-10-01 10:20:30.123'
+     * @return The parsed epoch millis
+     */
+    public long parseEpochMilli(CharSequence str) {
+        this.parse(str);
+        return epochSecond * 1000 + dt.ns / 1000000;
+    }
+
+    /**
+     * Parse the specified String into Instant
+     *
+     * @param str The original String like '2019-10-01 10:20:30.123'
+     * @return The parsed Instant
+     */
+    public Instant parseInstant(CharSequence str) {
+        this.parse(str);
+        return Instant.ofEpochSecond(epochSecond, dt.ns);
+    }
+
+    /**
+     * Parse the specified String into the specified DateBuilder, all fields would be reset and filled,
+     * and am/pm would be applied into hour already.
+     *
+     * @param str    The original String like '2019-10-01 10:20:30.123'
+     * @param target The DateBuilder to accept parsed fields
+     */
+    public void parse(CharSequence str, DateBuilder target) {
+        this.parse(str);
+        target.copyFrom(dt);
+    }
+
+    /**
+     * The count of inputs which reused the previous parsing.
+     *
+     * @return The count
+     */
+    public long getReusedCount() {
+        return reusedCount;
+    }
+
+    /**
+     * Parse the input incrementally if possible, fallback to the full parsing if not.
+     */
+    private void parse(CharSequence str) {
+        int changed = this.diff(str);
+        if (changed == 0 || (changed > 0 && this.reuse(str, changed))) {
+            reusedCount++;
+            return;
+        }
+        // parse fully, the previous input is unusable until succeed
+        this.prevLength = -1;
+        this.fieldCount = 0;
+        this.reusable = !digitSensitive;
+        DateBuilder result = parser.parse(str, this);
+        raw.copyFrom(result);
+        this.computeEpoch(false);
+        this.prepareFields();
+        int len = str.length();
+        if (prev.length < len) {
+            prev = new char[Math.max(len, prev.length * 2)];
+        }
+        for (int i = 0; i < len; i++) {
+            prev[i] = str.charAt(i);
+        }
+        this.prevLength = len;
+    }
+
+    /**
+     * Compare the input with the previous one, and find the changed fields.
+     *
+     * @return The bitmap of changed fields, 0 means the same input, -1 means not reusable
+     */
+    private int diff(CharSequence str) {
+        if (prevLength < 0 || str == null || str.length() != prevLength) {
+            return -1;
+        }
+        int changed = 0;
+        for (int i = 0; i < prevLength; i++) {
+            char ch = str.charAt(i);
+            char old = prev[i];
+            if (ch == old) {
+                continue;
+            }
+            if (ch < '0' || ch > '9' || old < '0' || old > '9') {
+                return -1;
+            }
+            int field = this.fieldAt(i);
+            if (field < 0) {
+                return -1;
+            }
+            changed |= 1 << field;
+        }
+        return changed;
+    }
+
+    /**
+     * Decode the changed fields on the previous result, and compute the epoch.
+     *
+     * @return False if any changed field is invalid, then the full parsing is needed to report the error
+     */
+    private boolean reuse(CharSequence str, int changed) {
+        int len = prevLength;
+        this.prevLength = -1; // the raw result is dirty until succeed
+        input.src = str;
+        int written = 0;
+        for (int i = 0; i < fieldCount; i++) {
+            if ((changed & (1 << i)) == 0) {
+                continue;
+            }
+            if (!parser.parseField(input, starts[i], raw, fields[i], starts[i], ends[i])) {
+                return false;
+            }
+            written |= writes(fields[i]);
+        }
+        input.src = null;
+        this.computeEpoch((written & ~W_TIME) == 0);
+        for (int i = 0; i < len; i++) {
+            prev[i] = str.charAt(i);
+        }
+        this.prevLength = len;
+        return true;
+    }
+
+    /**
+     * Compute the epoch of raw result, adjust the previous epoch directly if only the time of day changed.
+     */
+    private void computeEpoch(boolean timeOnly) {
+        dt.copyFrom(raw);
+        dt.prepare();
+        boolean fixedOffset = dt.unixsecond == 0 && (dt.zoneOffsetSetted || dt.zone == null);
+        int newSecondOfDay = dt.hour * 3600 + dt.minute * 60 + dt.second;
+        if (timeOnly && fixedOffset && dt.hour < 24) {
+            this.epochSecond += newSecondOfDay - secondOfDay;
+        } else {
+            this.epochSecond = dt.toEpochSecond();
+        }
+        this.secondOfDay = newSecondOfDay;
+    }
+
+    /**
+     * Mark the fields which could be decoded alone, every written value should be written by one field only.
+     */
+    private void prepareFields() {
+        if (!reusable) {
+            fieldCount = 0;
+            return;
+        }
+        int once = 0;
+        int more = 0;
+        for (int i = 0; i < fieldCount; i++) {
+            int w = writes(fields[i]);
+            more |= once & w;
+            once |= w;
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            decodable[i] = isDecodable(fields[i], ends[i] - starts[i]) && (writes(fields[i]) & more) == 0;
+        }
+    }
+
+    private int fieldAt(int offset) {
+        for (int i = 0; i < fieldCount; i++) {
+            if (offset >= starts[i] && offset < ends[i]) {
+                return decodable[i] ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Record the span of one parsed field.
+     */
+    void record(int field, int start, int end) {
+        if (fieldCount == MAX_FIELDS) {
+            reusable = false;
+            return;
+        }
+        fields[fieldCount] = field;
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Record the matched customized rule, only the predefined handler is known, which sets zone only.
+     */
+    void recordHandler(RulePlan plan) {
+        if (plan.family == null) {
+            reusable = false;
+        }
+    }
+
+    /**
+     * Record the input is parsed by the fallback parser, whose fields aren't recorded.
+     */
+    void recordFallback() {
+        reusable = false;
+    }
+
+    /**
+     * Check whether the field consists of digits, and could be decoded without other fields.
+     */
+    private static boolean isDecodable(int field, int length) {
+        switch (field) {
+            case RulePlan.MONTH:
+                return length <= 2; // not month's word
+            case RulePlan.YEAR:
+            case RulePlan.DAY:
+            case RulePlan.HOUR:
+            case RulePlan.MINUTE:
+            case RulePlan.SECOND:
+            case RulePlan.NS:
+            case RulePlan.DAY_OR_MONTH:
+            case RulePlan.ZONE_OFFSET:
+            case RulePlan.UNIXSECOND:
+            case RulePlan.MILLISECOND:
+            case RulePlan.MICROSECOND:
+            case RulePlan.NANOSECOND:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The values which are written by the specified field.
+     */
+    private static int writes(int field) {
+        switch (field) {
+            case RulePlan.WEEK:
+                return W_WEEK;
+            case RulePlan.YEAR:
+                return W_YEAR;
+            case RulePlan.MONTH:
+                return W_MONTH;
+            case RulePlan.DAY:
+                return W_DAY;
+            case RulePlan.HOUR:
+                return W_HOUR;
+            case RulePlan.MINUTE:
+                return W_MINUTE;
+            case RulePlan.SECOND:
+                return W_SECOND;
+            case RulePlan.NS:
+                return W_NS;
+            case RulePlan.M:
+                return W_AM_PM;
+            case RulePlan.ZERO:
+            case RulePlan.ZONE_OFFSET:
+                return W_OFFSET;
+            case RulePlan.DAY_OR_MONTH:
+                return W_DAY | W_MONTH;
+            case RulePlan.UNIXSECOND:
+                return W_EPOCH;
+            case RulePlan.MILLISECOND:
+            case RulePlan.MICROSECOND:
+            case RulePlan.NANOSECOND:
+                return W_EPOCH | W_NS;
+            default:
+                return 0;
+        }
+    }
+
+}
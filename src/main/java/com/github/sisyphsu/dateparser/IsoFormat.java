@@ -0,0 +1,157 @@
+package com.github.sisyphsu.dateparser;
+
+/**
+ * IsoFormat specifies how {@link DateParser#normalize} writes the parsed datetime in ISO-8601,
+ * like '2019-10-01T10:20:30.123+08:00'. It's immutable and could be shared.
+ * <p>
+ * The default is the same as {@link java.time.OffsetDateTime#toString()}, which omits the zero second,
+ * and writes the fraction by 3, 6 or 9 digits.
+ *
+ * @author sulin
+ * @since 2026-10-20 00:21:05
+ */
+public final class IsoFormat {
+
+    /**
+     * The precision which writes the fraction like OffsetDateTime, by 3, 6 or 9 digits, and omits the zero second
+     */
+    public static final int AUTO = -1;
+
+    /**
+     * Same as {@link java.time.OffsetDateTime#toString()}, like '2019-10-01T10:20+08:00' or '2019-10-01T10:20:30Z'
+     */
+    public static final IsoFormat DEFAULT = new IsoFormat(AUTO, true, true);
+
+    /**
+     * The max length of output, like '+999999999-12-31T23:59:59.999999999-00:25:21'
+     */
+    static final int MAX_LENGTH = 44;
+
+    private static final int[] POWERS = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000};
+
+    private final int precision;
+    private final boolean zulu;
+    private final boolean colon;
+
+    private IsoFormat(int precision, boolean zulu, boolean colon) {
+        this.precision = precision;
+        this.zulu = zulu;
+        this.colon = colon;
+    }
+
+    /**
+     * Write the second and the specified digits of fraction always, the remaining digits are truncated.
+     *
+     * @param precision The digits of fraction, 0 means second, 3 means millisecond, {@link #AUTO} means default
+     * @return The new IsoFormat
+     */
+    public IsoFormat precision(int precision) {
+        if (precision < AUTO || precision > 9) {
+            throw new IllegalArgumentException("precision must be in [0, 9], or AUTO: " + precision);
+        }
+        return new IsoFormat(precision, zulu, colon);
+    }
+
+    /**
+     * Write the zero offset as 'Z' or '+00:00'.
+     *
+     * @param zulu True means 'Z'
+     * @return The new IsoFormat
+     */
+    public IsoFormat zulu(boolean zulu) {
+        return new IsoFormat(precision, zulu, colon);
+    }
+
+    /**
+     * Write the offset as '+08:00' or '+0800'.
+     *
+     * @param colon False means the basic format without colon
+     * @return The new IsoFormat
+     */
+    public IsoFormat colon(boolean colon) {
+        return new IsoFormat(precision, zulu, colon);
+    }
+
+    /**
+     * Write the specified local datetime and offset into buffer, the fields must be valid already.
+     *
+     * @return The end offset in buffer
+     */
+    int write(char[] buf, int pos, int year, int month, int day, int hour, int minute, int second, int ns, int offsetSecond) {
+        // year, same as LocalDate
+        int absYear = Math.abs(year);
+        if (absYear < 1000) {
+            if (year < 0) {
+                buf[pos++] = '-';
+            }
+            pos = writeDigits(buf, pos, absYear, 4);
+        } else {
+            if (year > 9999) {
+                buf[pos++] = '+';
+            } else if (year < 0) {
+                buf[pos++] = '-';
+            }
+            pos = writeDigits(buf, pos, absYear, digitCount(absYear));
+        }
+        buf[pos++] = '-';
+        pos = writeDigits(buf, pos, month, 2);
+        buf[pos++] = '-';
+        pos = writeDigits(buf, pos, day, 2);
+        buf[pos++] = 'T';
+        pos = writeDigits(buf, pos, hour, 2);
+        buf[pos++] = ':';
+        pos = writeDigits(buf, pos, minute, 2);
+        // second and fraction, same as LocalTime if AUTO
+        int digits = precision;
+        if (precision == AUTO) {
+            digits = ns == 0 ? 0 : ns % 1000000 == 0 ? 3 : ns % 1000 == 0 ? 6 : 9;
+        }
+        if (precision != AUTO || second != 0 || ns != 0) {
+            buf[pos++] = ':';
+            pos = writeDigits(buf, pos, second, 2);
+        }
+        if (digits > 0) {
+            buf[pos++] = '.';
+            pos = writeDigits(buf, pos, ns / POWERS[9 - digits], digits);
+        }
+        // offset, same as ZoneOffset if zulu and colon
+        if (offsetSecond == 0 && zulu) {
+            buf[pos++] = 'Z';
+            return pos;
+        }
+        buf[pos++] = offsetSecond < 0 ? '-' : '+';
+        int absOffset = Math.abs(offsetSecond);
+        pos = writeDigits(buf, pos, absOffset / 3600, 2);
+        if (colon) {
+            buf[pos++] = ':';
+        }
+        pos = writeDigits(buf, pos, absOffset / 60 % 60, 2);
+        if (absOffset % 60 != 0) {
+            if (colon) {
+                buf[pos++] = ':';
+            }
+            pos = writeDigits(buf, pos, absOffset % 60, 2);
+        }
+        return pos;
+    }
+
+    /**
+     * Write the non-negative number by the specified digits, the leading digits are filled by '0'.
+     */
+    private static int writeDigits(char[] buf, int pos, int num, int digits) {
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + num % 10);
+            num /= 10;
+        }
+        return pos + digits;
+    }
+
+    private static int digitCount(int num) {
+        int count = 1;
+        while (count < POWERS.length && num >= POWERS[count]) {
+            count++;
+        }
+        return count;
+    }
+
+}
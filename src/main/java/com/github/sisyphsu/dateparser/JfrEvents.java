@@ -0,0 +1,272 @@
+package com.github.sisyphsu.dateparser;
+
+import jdk.jfr.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JFR events of parser, it's loaded by {@link ParseEvents} only if jdk.jfr is present,
+ * and it's excluded from the build by the JDK without jdk.jfr.
+ * <p>
+ * The threshold of slow parsing is 100us by default, and the parsing events support sampling by setting
+ * like {@code com.github.sisyphsu.dateparser.FailedParse#sampling=100}, which means record 1/100 of them.
+ *
+ * @author sulin
+ * @since 2026-10-19 17:12:26
+ */
+final class JfrEvents implements ParseEvents.Recorder {
+
+    private static final int MAX_INPUT_LENGTH = 256;
+
+    private static final EventType SLOW_PARSE = register(SlowParseEvent.class);
+    private static final EventType FAILED_PARSE = register(FailedParseEvent.class);
+    private static final EventType BUILD = register(BuildEvent.class);
+    private static final EventType REGISTER = register(RegisterEvent.class);
+
+    JfrEvents() {
+    }
+
+    @Override
+    public boolean isParseEnabled() {
+        return SLOW_PARSE.isEnabled() || FAILED_PARSE.isEnabled();
+    }
+
+    @Override
+    public Object beginParse() {
+        if (!SLOW_PARSE.isEnabled()) {
+            return null;
+        }
+        SlowParseEvent event = new SlowParseEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endParse(Object event, long start, CharSequence input, List<String> rules, String failure, int offset) {
+        if (event != null) {
+            SlowParseEvent slow = (SlowParseEvent) event;
+            slow.end();
+            if (slow.shouldCommit()) {
+                slow.inputLength = input.length();
+                slow.matchedRules = join(rules);
+                slow.failed = failure != null;
+                slow.commit();
+            }
+        }
+        if (failure != null && FAILED_PARSE.isEnabled()) {
+            FailedParseEvent failed = new FailedParseEvent();
+            if (failed.shouldCommit()) {
+                failed.input = truncate(input);
+                failed.inputLength = input.length();
+                failed.reason = failure;
+                failed.offset = offset;
+                failed.matchedRules = join(rules);
+                failed.parseDuration = System.nanoTime() - start;
+                failed.commit();
+            }
+        }
+    }
+
+    @Override
+    public Object beginBuild() {
+        if (!BUILD.isEnabled()) {
+            return null;
+        }
+        BuildEvent event = new BuildEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endBuild(Object event, int ruleCount, int standardRuleCount, boolean cached) {
+        BuildEvent build = (BuildEvent) event;
+        build.end();
+        if (build.shouldCommit()) {
+            build.ruleCount = ruleCount;
+            build.standardRuleCount = standardRuleCount;
+            build.cached = cached;
+            build.commit();
+        }
+    }
+
+    @Override
+    public Object beginRegister() {
+        if (!REGISTER.isEnabled()) {
+            return null;
+        }
+        RegisterEvent event = new RegisterEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endRegister(Object event, String rule, boolean standard) {
+        RegisterEvent register = (RegisterEvent) event;
+        register.end();
+        if (register.shouldCommit()) {
+            register.rule = rule;
+            register.standard = standard;
+            register.commit();
+        }
+    }
+
+    private static EventType register(Class<? extends Event> eventClass) {
+        FlightRecorder.register(eventClass);
+        return EventType.getEventType(eventClass);
+    }
+
+    private static String join(List<String> rules) {
+        return rules == null ? null : String.join("\n", rules);
+    }
+
+    private static String truncate(CharSequence input) {
+        if (input.length() > MAX_INPUT_LENGTH) {
+            return input.subSequence(0, MAX_INPUT_LENGTH).toString();
+        }
+        return input.toString();
+    }
+
+    /**
+     * Parsing which is slower than the threshold.
+     */
+    @Name("com.github.sisyphsu.dateparser.SlowParse")
+    @Label("Slow Parse")
+    @Category("DateParser")
+    @Description("Datetime parsing which is slower than the threshold")
+    @Threshold("100 us")
+    @StackTrace(false)
+    static class SlowParseEvent extends Event {
+
+        @Label("Input Length")
+        int inputLength;
+
+        @Label("Matched Rules")
+        String matchedRules;
+
+        @Label("Failed")
+        boolean failed;
+
+        @Name("sampling")
+        @Label("Sampling")
+        @SettingDefinition
+        protected boolean sampling(SamplingSetting setting) {
+            return setting.accept();
+        }
+    }
+
+    /**
+     * Parsing which failed, the failure recovered by fallback parser isn't included.
+     */
+    @Name("com.github.sisyphsu.dateparser.FailedParse")
+    @Label("Failed Parse")
+    @Category("DateParser")
+    @Description("Datetime parsing which failed")
+    @StackTrace(false)
+    static class FailedParseEvent extends Event {
+
+        @Label("Input")
+        String input;
+
+        @Label("Input Length")
+        int inputLength;
+
+        @Label("Reason")
+        String reason;
+
+        @Label("Offset")
+        int offset;
+
+        @Label("Matched Rules")
+        String matchedRules;
+
+        @Label("Parsing Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long parseDuration;
+
+        @Name("sampling")
+        @Label("Sampling")
+        @SettingDefinition
+        protected boolean sampling(SamplingSetting setting) {
+            return setting.accept();
+        }
+    }
+
+    /**
+     * Parser's building, which compiles all rules.
+     */
+    @Name("com.github.sisyphsu.dateparser.Build")
+    @Label("Parser Build")
+    @Category("DateParser")
+    @Description("DateParser's building which compiles and indexes all rules")
+    static class BuildEvent extends Event {
+
+        @Label("Rule Count")
+        int ruleCount;
+
+        @Label("Standard Rule Count")
+        int standardRuleCount;
+
+        @Label("Cached")
+        @Description("The compiled rules were shared from another parser, so nothing was compiled")
+        boolean cached;
+    }
+
+    /**
+     * Rule's registration through {@link DateParserUtils}, which rebuilds the shared parser.
+     */
+    @Name("com.github.sisyphsu.dateparser.Register")
+    @Label("Rule Register")
+    @Category("DateParser")
+    @Description("Rule's registration through DateParserUtils, which rebuilds the shared parser")
+    static class RegisterEvent extends Event {
+
+        @Label("Rule")
+        String rule;
+
+        @Label("Standard")
+        boolean standard;
+    }
+
+    /**
+     * Sampling setting, the value N means record 1/N of events, the smallest N wins if multiple recordings.
+     */
+    public static final class SamplingSetting extends SettingControl {
+
+        private volatile int rate = 1;
+
+        @Override
+        public String combine(Set<String> values) {
+            int min = Integer.MAX_VALUE;
+            for (String value : values) {
+                min = Math.min(min, parse(value));
+            }
+            return String.valueOf(min == Integer.MAX_VALUE ? 1 : min);
+        }
+
+        @Override
+        public void setValue(String value) {
+            this.rate = parse(value);
+        }
+
+        @Override
+        public String getValue() {
+            return String.valueOf(rate);
+        }
+
+        boolean accept() {
+            int rate = this.rate;
+            return rate <= 1 || ThreadLocalRandom.current().nextInt(rate) == 0;
+        }
+
+        private static int parse(String value) {
+            try {
+                return Math.max(1, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                return 1;
+            }
+        }
+    }
+
+}
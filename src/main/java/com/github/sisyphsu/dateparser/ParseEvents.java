@@ -0,0 +1,119 @@
+package com.github.sisyphsu.dateparser;
+
+import java.util.List;
+
+/**
+ * ParseEvents emits JFR events of parser, it's an facade of {@code JfrEvents} which references jdk.jfr.
+ * <p>
+ * {@code JfrEvents} is loaded by name, and it isn't compiled by the JDK without jdk.jfr,
+ * so the runtime or build without jdk.jfr like old Java 8 could work too.
+ * All methods are cheap if no recording is active, {@code begin*} returns null in this case.
+ *
+ * @author sulin
+ * @since 2026-10-19 17:12:26
+ */
+final class ParseEvents {
+
+    private static final Recorder RECORDER = load();
+
+    private ParseEvents() {
+    }
+
+    /**
+     * Check whether jdk.jfr is available, and the events could be recorded.
+     */
+    static boolean isAvailable() {
+        return RECORDER != null;
+    }
+
+    /**
+     * Check whether any recording need the parsing events.
+     */
+    static boolean isParseEnabled() {
+        return RECORDER != null && RECORDER.isParseEnabled();
+    }
+
+    /**
+     * Begin an parsing, return null if the slow parsing event is disabled.
+     */
+    static Object beginParse() {
+        return RECORDER != null ? RECORDER.beginParse() : null;
+    }
+
+    /**
+     * End an parsing, commit the slow parsing or failed parsing event if needed.
+     */
+    static void endParse(Object event, long start, CharSequence input, List<String> rules, String failure, int offset) {
+        if (RECORDER != null) {
+            RECORDER.endParse(event, start, input, rules, failure, offset);
+        }
+    }
+
+    /**
+     * Begin an parser's building, return null if the event is disabled.
+     */
+    static Object beginBuild() {
+        return RECORDER != null ? RECORDER.beginBuild() : null;
+    }
+
+    /**
+     * End an parser's building, commit the event if needed.
+     *
+     * @param cached Whether the compiled rules were shared from the cache, instead of compiling them
+     */
+    static void endBuild(Object event, int ruleCount, int standardRuleCount, boolean cached) {
+        if (event != null) {
+            RECORDER.endBuild(event, ruleCount, standardRuleCount, cached);
+        }
+    }
+
+    /**
+     * Begin an rule's registration of {@link DateParserUtils}, return null if the event is disabled.
+     */
+    static Object beginRegister() {
+        return RECORDER != null ? RECORDER.beginRegister() : null;
+    }
+
+    /**
+     * End an rule's registration, commit the event if needed.
+     */
+    static void endRegister(Object event, String rule, boolean standard) {
+        if (event != null) {
+            RECORDER.endRegister(event, rule, standard);
+        }
+    }
+
+    /**
+     * Load JfrEvents if both jdk.jfr and it are present, return null if not.
+     */
+    private static Recorder load() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            Class<?> clz = Class.forName(ParseEvents.class.getPackage().getName() + ".JfrEvents");
+            return (Recorder) clz.getDeclaredConstructor().newInstance();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * The recorder of events, it's implemented by JfrEvents.
+     */
+    interface Recorder {
+
+        boolean isParseEnabled();
+
+        Object beginParse();
+
+        void endParse(Object event, long start, CharSequence input, List<String> rules, String failure, int offset);
+
+        Object beginBuild();
+
+        void endBuild(Object event, int ruleCount, int standardRuleCount, boolean cached);
+
+        Object beginRegister();
+
+        void endRegister(Object event, String rule, boolean standard);
+    }
+
+}
@@ -0,0 +1,428 @@
+package com.github.sisyphsu.dateparser;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ParseMetrics collects the statistics of parsers, including every rule's hit count,
+ * the failures by category, and the latency histogram.
+ * <p>
+ * Every thread records into its own stripe, so parsers in different threads have no contention,
+ * and {@link #snapshot()} merges all stripes. The dead threads' stripes are folded into a shared base,
+ * so the threads' churn doesn't keep stripes. It could be attached to parsers by
+ * {@link DateParserBuilder#metrics(ParseMetrics)}, the parser without metrics has no overhead.
+ * <p>
+ * Every parsing is counted once, if the specialized or pruned parser failed and its fallback parser retried,
+ * only the fallback's result is counted, and its latency includes the failed attempt.
+ *
+ * @author sulin
+ * @since 2026-10-19 16:30:05
+ */
+public final class ParseMetrics implements ParseMetricsMXBean {
+
+    /**
+     * The number of latency's buckets, bucket[i] counts the latency in [2^(i-1), 2^i) nanoseconds.
+     */
+    public static final int LATENCY_BUCKETS = 64;
+    /**
+     * The number of failure offset's buckets, bucket[i] counts the offset in [2^(i-1), 2^i).
+     */
+    public static final int OFFSET_BUCKETS = 16;
+
+    static final String UNMATCHED = "unmatched";
+    static final String HANDLER_ERROR = "handler error";
+
+    private final Map<String, Integer> ruleIds = new ConcurrentHashMap<>();
+    private final List<String> ruleNames = new CopyOnWriteArrayList<>();
+    private final Queue<Stripe> stripes = new ConcurrentLinkedQueue<>();
+    /**
+     * The folded counters of dead threads, it's guarded by itself
+     */
+    private final Stripe base = new Stripe(null);
+    private final ThreadLocal<Stripe> localStripe = ThreadLocal.withInitial(this::newStripe);
+    private final List<ParseMetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile ObjectName objectName;
+
+    /**
+     * Add an listener which would receive the snapshot when {@link #publish()}.
+     *
+     * @param listener The listener
+     */
+    public void addListener(ParseMetricsListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Remove the specified listener.
+     *
+     * @param listener The listener
+     */
+    public void removeListener(ParseMetricsListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Take an snapshot and publish it to all listeners, it could be scheduled periodically.
+     *
+     * @return The published snapshot
+     */
+    public Snapshot publish() {
+        Snapshot snapshot = this.snapshot();
+        for (ParseMetricsListener listener : listeners) {
+            listener.onSnapshot(snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Merge all threads' stripes into an snapshot, the concurrent recording may be missed partly.
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        long[] hits = new long[ruleNames.size()];
+        long[] latency = new long[LATENCY_BUCKETS];
+        Map<String, long[]> offsets = new TreeMap<>();
+        synchronized (base) {
+            this.purge();
+            merge(base, hits, latency, offsets);
+            for (Stripe stripe : stripes) {
+                merge(stripe, hits, latency, offsets);
+            }
+        }
+        return new Snapshot(ruleNames, hits, latency, offsets);
+    }
+
+    /**
+     * Register this metrics into the platform MBeanServer.
+     *
+     * @param name The ObjectName, like 'com.github.sisyphsu.dateparser:type=ParseMetrics'
+     * @throws JMException If register failed
+     */
+    public synchronized void registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+    }
+
+    /**
+     * Unregister this metrics from the platform MBeanServer.
+     *
+     * @throws JMException If unregister failed
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        this.objectName = null;
+    }
+
+    @Override
+    public long getParseCount() {
+        return snapshot().getParseCount();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return snapshot().getFailureCount();
+    }
+
+    @Override
+    public Map<String, Long> getRuleHits() {
+        return snapshot().getRuleHits();
+    }
+
+    @Override
+    public Map<String, Long> getFailures() {
+        return snapshot().getFailures();
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return snapshot().getLatencyHistogram();
+    }
+
+    @Override
+    public long getLatencyP50() {
+        return snapshot().latencyPercentile(0.5);
+    }
+
+    @Override
+    public long getLatencyP99() {
+        return snapshot().latencyPercentile(0.99);
+    }
+
+    @Override
+    public long getLatencyP999() {
+        return snapshot().latencyPercentile(0.999);
+    }
+
+    /**
+     * Get the unique id of the specified rule, it's used as the index of stripe's hit counters.
+     */
+    synchronized int ruleId(String rule) {
+        Integer id = ruleIds.get(rule);
+        if (id == null) {
+            id = ruleNames.size();
+            ruleNames.add(rule);
+            ruleIds.put(rule, id);
+        }
+        return id;
+    }
+
+    /**
+     * Get the current thread's stripe.
+     */
+    Stripe stripe() {
+        return localStripe.get();
+    }
+
+    private Stripe newStripe() {
+        Stripe stripe = new Stripe(Thread.currentThread());
+        synchronized (base) {
+            this.purge();
+            stripes.add(stripe);
+        }
+        return stripe;
+    }
+
+    /**
+     * Fold the dead threads' stripes into base and remove them, it should be called with base's lock.
+     * The thread's termination happens-before its death is detected, so its counters are complete.
+     */
+    private void purge() {
+        for (Iterator<Stripe> it = stripes.iterator(); it.hasNext(); ) {
+            Stripe stripe = it.next();
+            Thread owner = stripe.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                it.remove();
+                base.add(stripe);
+            }
+        }
+    }
+
+    /**
+     * Add the stripe's counters into the specified arrays.
+     */
+    private static void merge(Stripe stripe, long[] hits, long[] latency, Map<String, long[]> offsets) {
+        AtomicLongArray stripeHits = stripe.hits;
+        for (int i = 0; i < hits.length && i < stripeHits.length(); i++) {
+            hits[i] += stripeHits.get(i);
+        }
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            latency[i] += stripe.latency.get(i);
+        }
+        stripe.failures.forEach((reason, stripeOffsets) -> {
+            long[] arr = offsets.computeIfAbsent(category(reason), k -> new long[OFFSET_BUCKETS]);
+            for (int i = 0; i < OFFSET_BUCKETS; i++) {
+                arr[i] += stripeOffsets.get(i);
+            }
+        });
+    }
+
+    /**
+     * Convert the parser's failure reason like 'Invalid month at ' into category like 'Invalid month'.
+     */
+    static String category(String reason) {
+        if (reason == null) {
+            return UNMATCHED;
+        }
+        reason = reason.trim();
+        if (reason.endsWith(" at")) {
+            reason = reason.substring(0, reason.length() - 3);
+        } else if (reason.endsWith(":")) {
+            reason = reason.substring(0, reason.length() - 1);
+        }
+        return reason;
+    }
+
+    private static int bucket(long value, int buckets) {
+        return Math.min(64 - Long.numberOfLeadingZeros(Math.max(value, 0)), buckets - 1);
+    }
+
+    /**
+     * Stripe holds one thread's counters, it has only one writer, so {@link AtomicLongArray#lazySet} is enough.
+     */
+    static final class Stripe {
+
+        private final WeakReference<Thread> owner;
+        private volatile AtomicLongArray hits = new AtomicLongArray(256);
+        private final AtomicLongArray latency = new AtomicLongArray(LATENCY_BUCKETS);
+        private final Map<String, AtomicLongArray> failures = new ConcurrentHashMap<>();
+
+        Stripe(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        void hit(int ruleId) {
+            AtomicLongArray arr = this.hits(ruleId + 1);
+            arr.lazySet(ruleId, arr.get(ruleId) + 1);
+        }
+
+        /**
+         * Get the hit counters, grow it if its length is less than the specified length.
+         */
+        private AtomicLongArray hits(int length) {
+            AtomicLongArray arr = hits;
+            if (length > arr.length()) {
+                AtomicLongArray newArr = new AtomicLongArray(Math.max(length, arr.length() * 2));
+                for (int i = 0; i < arr.length(); i++) {
+                    newArr.lazySet(i, arr.get(i));
+                }
+                this.hits = arr = newArr;
+            }
+            return arr;
+        }
+
+        /**
+         * Add the specified stripe's counters into this one, the specified stripe shouldn't be written anymore.
+         */
+        void add(Stripe other) {
+            AtomicLongArray otherHits = other.hits;
+            AtomicLongArray arr = this.hits(otherHits.length());
+            for (int i = 0; i < otherHits.length(); i++) {
+                arr.lazySet(i, arr.get(i) + otherHits.get(i));
+            }
+            for (int i = 0; i < LATENCY_BUCKETS; i++) {
+                latency.lazySet(i, latency.get(i) + other.latency.get(i));
+            }
+            other.failures.forEach((reason, otherOffsets) -> {
+                AtomicLongArray offsets = failures.computeIfAbsent(reason, k -> new AtomicLongArray(OFFSET_BUCKETS));
+                for (int i = 0; i < OFFSET_BUCKETS; i++) {
+                    offsets.lazySet(i, offsets.get(i) + otherOffsets.get(i));
+                }
+            });
+        }
+
+        void latency(long nanos) {
+            int index = bucket(nanos, LATENCY_BUCKETS);
+            latency.lazySet(index, latency.get(index) + 1);
+        }
+
+        void failure(String reason, int offset) {
+            AtomicLongArray offsets = failures.get(reason == null ? UNMATCHED : reason);
+            if (offsets == null) {
+                offsets = new AtomicLongArray(OFFSET_BUCKETS);
+                failures.put(reason == null ? UNMATCHED : reason, offsets);
+            }
+            int index = bucket(offset, OFFSET_BUCKETS);
+            offsets.lazySet(index, offsets.get(index) + 1);
+        }
+    }
+
+    /**
+     * An immutable snapshot of ParseMetrics, the histograms are copied at every access.
+     */
+    @Getter
+    public static final class Snapshot {
+
+        /**
+         * The count of all parsing
+         */
+        private final long parseCount;
+        /**
+         * The count of failed parsing
+         */
+        private final long failureCount;
+        /**
+         * Every hit rule's hit count, in descending order
+         */
+        private final Map<String, Long> ruleHits;
+        /**
+         * Every failure category's count
+         */
+        private final Map<String, Long> failures;
+        /**
+         * Every failure category's offset histogram, see {@link #OFFSET_BUCKETS}
+         */
+        @Getter(AccessLevel.NONE)
+        private final Map<String, long[]> failureOffsets;
+        /**
+         * The latency histogram, see {@link #LATENCY_BUCKETS}
+         */
+        @Getter(AccessLevel.NONE)
+        private final long[] latencyHistogram;
+
+        Snapshot(List<String> ruleNames, long[] hits, long[] latency, Map<String, long[]> offsets) {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < hits.length; i++) {
+                if (hits[i] > 0) {
+                    ids.add(i);
+                }
+            }
+            ids.sort((a, b) -> Long.compare(hits[b], hits[a]));
+            Map<String, Long> ruleHits = new LinkedHashMap<>();
+            for (Integer id : ids) {
+                ruleHits.put(ruleNames.get(id), hits[id]);
+            }
+            long failureCount = 0;
+            Map<String, Long> failures = new TreeMap<>();
+            for (Map.Entry<String, long[]> entry : offsets.entrySet()) {
+                long count = Arrays.stream(entry.getValue()).sum();
+                failures.put(entry.getKey(), count);
+                failureCount += count;
+            }
+            this.parseCount = Arrays.stream(latency).sum();
+            this.failureCount = failureCount;
+            this.ruleHits = Collections.unmodifiableMap(ruleHits);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.failureOffsets = offsets;
+            this.latencyHistogram = latency;
+        }
+
+        /**
+         * Get every failure category's offset histogram, see {@link #OFFSET_BUCKETS}
+         *
+         * @return The copied histograms
+         */
+        public Map<String, long[]> getFailureOffsets() {
+            Map<String, long[]> result = new TreeMap<>();
+            failureOffsets.forEach((category, offsets) -> result.put(category, offsets.clone()));
+            return result;
+        }
+
+        /**
+         * Get the latency histogram, see {@link #LATENCY_BUCKETS}
+         *
+         * @return The copied histogram
+         */
+        public long[] getLatencyHistogram() {
+            return latencyHistogram.clone();
+        }
+
+        /**
+         * Get the specified percentile of latency, it's the upper bound of the histogram's bucket.
+         *
+         * @param percentile The percentile like 0.99
+         * @return Latency in nanoseconds
+         */
+        public long latencyPercentile(double percentile) {
+            long threshold = (long) Math.ceil(parseCount * percentile);
+            long count = 0;
+            for (int i = 0; i < latencyHistogram.length; i++) {
+                count += latencyHistogram[i];
+                if (count >= threshold && count > 0) {
+                    return i >= 63 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return 0;
+        }
+    }
+
+}
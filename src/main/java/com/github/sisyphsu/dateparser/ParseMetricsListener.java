@@ -0,0 +1,18 @@
+package com.github.sisyphsu.dateparser;
+
+/**
+ * Listener of {@link ParseMetrics}, it would receive the snapshot when {@link ParseMetrics#publish()}.
+ *
+ * @author sulin
+ * @since 2026-10-19 16:30:05
+ */
+public interface ParseMetricsListener {
+
+    /**
+     * Receive the snapshot of metrics.
+     *
+     * @param snapshot The merged snapshot
+     */
+    void onSnapshot(ParseMetrics.Snapshot snapshot);
+
+}
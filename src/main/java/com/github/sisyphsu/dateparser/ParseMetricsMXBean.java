@@ -0,0 +1,53 @@
+package com.github.sisyphsu.dateparser;
+
+import java.util.Map;
+
+/**
+ * JMX interface of {@link ParseMetrics}, register it by {@link ParseMetrics#registerMBean(String)}.
+ *
+ * @author sulin
+ * @since 2026-10-19 16:30:05
+ */
+public interface ParseMetricsMXBean {
+
+    /**
+     * @return The count of all parsing
+     */
+    long getParseCount();
+
+    /**
+     * @return The count of failed parsing
+     */
+    long getFailureCount();
+
+    /**
+     * @return Every hit rule's hit count
+     */
+    Map<String, Long> getRuleHits();
+
+    /**
+     * @return Every failure category's count
+     */
+    Map<String, Long> getFailures();
+
+    /**
+     * @return The latency histogram in nanoseconds
+     */
+    long[] getLatencyHistogram();
+
+    /**
+     * @return The median latency in nanoseconds
+     */
+    long getLatencyP50();
+
+    /**
+     * @return The 99th percentile latency in nanoseconds
+     */
+    long getLatencyP99();
+
+    /**
+     * @return The 99.9th percentile latency in nanoseconds
+     */
+    long getLatencyP999();
+
+}
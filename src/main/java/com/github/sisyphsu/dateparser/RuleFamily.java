@@ -0,0 +1,56 @@
+package com.github.sisyphsu.dateparser;
+
+/**
+ * The family of predefined rules, it could be used for including or excluding rules in {@link DateParserBuilder}.
+ *
+ * @author sulin
+ * @since 2026-10-19 18:02:44
+ */
+public enum RuleFamily {
+
+    /**
+     * Day of week, like 'Mon' or 'Monday,'
+     */
+    WEEKDAY,
+    /**
+     * Date with month-word, like 'may. 8th, 2009' or '2009-may-8th'
+     */
+    MONTH_WORD,
+    /**
+     * Numeric date, like '2019-10-01', '10/01/2019', '2019' or '20191001102030'
+     */
+    NUMERIC_DATE,
+    /**
+     * Unix timestamp in second, millisecond, microsecond or nanosecond, like '1569902400'
+     */
+    EPOCH,
+    /**
+     * Time of day, like 'at 10:20:30.123Z'
+     */
+    TIME,
+    /**
+     * Offset of timezone, like '+08:00'
+     */
+    ZONE_OFFSET,
+    /**
+     * Hour with o'clock, like '12 o’clock'
+     */
+    OCLOCK,
+    /**
+     * Am or pm
+     */
+    AM_PM,
+    /**
+     * Zone's name in brackets, like '(CEST)'
+     */
+    ZONE_NAME,
+    /**
+     * Zone's id, like 'UTC', 'Asia/Shanghai' or '[America/New_York]', it's the largest family.
+     */
+    ZONE_ID,
+    /**
+     * The monotonic clock suffix of golang's time, like 'MSK m=+0.000000001'
+     */
+    GO_SUFFIX,
+
+}
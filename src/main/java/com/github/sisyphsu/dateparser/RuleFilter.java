@@ -0,0 +1,634 @@
+package com.github.sisyphsu.dateparser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * RuleFilter is an cheap pre-filter built from rules, it rejects the input which cannot be matched by any rule
+ * at the offset, before the expensive regex matching.
+ * <p>
+ * It screens the length of the input's leading digits, which is computed from all rules and their sequences,
+ * so inputs like UUID '123e4567-...' or IPv4 '192.168.1.1' are rejected by their 3 leading digits,
+ * which couldn't be matched by any rule. It also collects the chars which any rule could start with.
+ * The unsupported regex syntax is treated as matching anything, so the filter never rejects an parseable input.
+ *
+ * @author sulin
+ * @since 2026-10-19 19:20:08
+ */
+final class RuleFilter {
+
+    private static final int OTHER = 128;
+    private static final long DIGITS = 0x3FFL << '0';
+    /**
+     * The bit of digits' length which means 63 or more.
+     */
+    private static final long SATURATED = 1L << 63;
+
+    /**
+     * The chars which any rule could start with, it's full if any rule could match empty
+     */
+    final CharSet firsts = new CharSet();
+    /**
+     * The acceptable lengths of the leading digits, the bit 63 means 63 or more.
+     */
+    private final long digitRuns;
+
+    RuleFilter(Collection<String> rules) {
+        long ended = 0;
+        long open = 0;
+        for (String rule : rules) {
+            Node node = new RegexParser(rule).parse();
+            firsts.addAll(firstChars(node));
+            if (node == null) {
+                ended = open = -1; // accept anything
+            } else {
+                long[] runs = digitRuns(node);
+                ended |= runs[0];
+                open |= runs[1];
+            }
+        }
+        this.digitRuns = sequenceRuns(ended, open);
+    }
+
+    /**
+     * Check whether the specified input might be matched, false means it cannot be parsed definitely.
+     *
+     * @param input The input
+     * @return False if no rule could match it
+     */
+    boolean mightMatch(CharSequence input) {
+        return mightMatch(input, 0);
+    }
+
+    /**
+     * Check whether the specified input might be matched from the specified offset by its leading digits.
+     *
+     * @param input The input
+     * @param from  The offset to start matching
+     * @return False if no rule could match at the offset
+     */
+    boolean mightMatch(CharSequence input, int from) {
+        int len = input.length();
+        int digits = from;
+        while (digits < len && digits - from < 63 && input.charAt(digits) >= '0' && input.charAt(digits) <= '9') {
+            digits++;
+        }
+        return (digitRuns & (1L << (digits - from))) != 0;
+    }
+
+    /**
+     * Compute the chars which the specified rule could start with,
+     * the rule which could match empty or has unsupported syntax could start with any char.
+     */
+    static CharSet firstChars(String rule) {
+        return firstChars(new RegexParser(rule).parse());
+    }
+
+    private static CharSet firstChars(Node node) {
+        CharSet result = new CharSet();
+        if (node == null || firstChars(node, result)) {
+            result = new CharSet();
+            result.negate();
+        }
+        return result;
+    }
+
+    /**
+     * Collect the node's first chars into the result, and return whether the node could match empty.
+     */
+    private static boolean firstChars(Node node, CharSet result) {
+        switch (node.type) {
+            case Node.CHAR:
+                result.addAll(node.set);
+                return false;
+            case Node.SEQ:
+                for (Node child : node.children) {
+                    if (!firstChars(child, result)) {
+                        return false;
+                    }
+                }
+                return true;
+            case Node.ALT:
+                boolean nullable = false;
+                for (Node child : node.children) {
+                    nullable |= firstChars(child, result);
+                }
+                return nullable;
+            case Node.REPEAT:
+                return firstChars(node.children.get(0), result) || node.min == 0;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Compute the lengths of the leading digits which the node's matching could have, as the bits of long.
+     * The first is the lengths ended inside the matching, by non-digit char or '$',
+     * the second is the lengths of the matching which has digits only, and could be continued by the following.
+     */
+    private static long[] digitRuns(Node node) {
+        long ended = 0;
+        long open = 0;
+        switch (node.type) {
+            case Node.CHAR:
+                CharSet set = node.set;
+                if (((set.lo & DIGITS) != 0)) {
+                    open = 1L << 1;
+                }
+                if ((set.lo & ~DIGITS) != 0 || set.hi != 0 || set.other) {
+                    ended = 1;
+                }
+                break;
+            case Node.SEQ:
+                open = 1;
+                for (Node child : node.children) {
+                    long[] runs = digitRuns(child);
+                    ended |= plus(open, runs[0]);
+                    open = plus(open, runs[1]);
+                }
+                break;
+            case Node.ALT:
+                for (Node child : node.children) {
+                    long[] runs = digitRuns(child);
+                    ended |= runs[0];
+                    open |= runs[1];
+                }
+                break;
+            case Node.REPEAT:
+                long[] body = digitRuns(node.children.get(0));
+                int max = node.max == Node.INFINITE ? node.min + 64 : node.max;
+                long times = 1; // the lengths of the repeated body
+                for (int i = 0; i <= max; i++) {
+                    if (i >= node.min) {
+                        open |= times;
+                    }
+                    if (i < max) {
+                        ended |= plus(times, body[0]);
+                        times = plus(times, body[1]);
+                    }
+                }
+                break;
+            case Node.END:
+                ended = 1;
+                break;
+            default:
+                open = 1;
+        }
+        return new long[]{ended, open};
+    }
+
+    /**
+     * Compute the acceptable lengths of the leading digits of the rules' sequence, the following rule continues
+     * the digits if the previous one ended with digits.
+     */
+    private static long sequenceRuns(long ended, long open) {
+        long endedSeq = ended;
+        long openSeq = open;
+        while (true) {
+            long newEnded = endedSeq | plus(open, endedSeq);
+            long newOpen = openSeq | plus(open, openSeq);
+            if (newEnded == endedSeq && newOpen == openSeq) {
+                break;
+            }
+            endedSeq = newEnded;
+            openSeq = newOpen;
+        }
+        // the input's remaining digits are left if the matching ended with digits
+        long result = endedSeq;
+        for (int len = 0; len < 64; len++) {
+            if ((openSeq & ((2L << len) - 1)) != 0) {
+                result |= 1L << len;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sum the lengths of two sets, the result is saturated at 63.
+     */
+    private static long plus(long a, long b) {
+        long result = 0;
+        for (; a != 0; a &= a - 1) {
+            int i = Long.numberOfTrailingZeros(a);
+            result |= b << i | ((b >>> (63 - i)) != 0 ? SATURATED : 0);
+        }
+        return result;
+    }
+
+    /**
+     * An set of chars, the non-ASCII chars are treated as one char {@link #OTHER}.
+     */
+    static final class CharSet {
+        long lo;
+        long hi;
+        boolean other;
+
+        void add(int ch) {
+            if (ch < 64) {
+                lo |= 1L << ch;
+            } else if (ch < OTHER) {
+                hi |= 1L << (ch - 64);
+            } else {
+                other = true;
+            }
+        }
+
+        void addRange(int from, int to) {
+            for (int ch = from; ch <= to && ch < OTHER; ch++) {
+                add(ch);
+            }
+            if (to >= OTHER) {
+                other = true;
+            }
+        }
+
+        void addAll(CharSet set) {
+            lo |= set.lo;
+            hi |= set.hi;
+            other |= set.other;
+        }
+
+        void negate() {
+            lo = ~lo;
+            hi = ~hi;
+            other = true;
+        }
+
+        boolean contains(int ch) {
+            if (ch < 64) {
+                return (lo & (1L << ch)) != 0;
+            } else if (ch < OTHER) {
+                return (hi & (1L << (ch - 64))) != 0;
+            }
+            return other;
+        }
+
+        boolean isFull() {
+            return lo == -1 && hi == -1 && other;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CharSet)) {
+                return false;
+            }
+            CharSet set = (CharSet) o;
+            return lo == set.lo && hi == set.hi && other == set.other;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(lo) * 31 + Long.hashCode(hi)) * 31 + (other ? 1 : 0);
+        }
+
+        static CharSet of(int... chars) {
+            CharSet set = new CharSet();
+            for (int ch : chars) {
+                set.add(ch);
+            }
+            return set;
+        }
+    }
+
+    /**
+     * Node of regex's syntax tree.
+     */
+    static final class Node {
+        static final int CHAR = 0;
+        static final int SEQ = 1;
+        static final int ALT = 2;
+        static final int REPEAT = 3;
+        static final int EMPTY = 4;
+        static final int END = 5;
+        static final int INFINITE = -1;
+
+        final int type;
+        CharSet set;
+        final List<Node> children = new ArrayList<>();
+        int min;
+        int max;
+
+        Node(int type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * An simple regex parser, it supports the syntax used by rules, and gives up the others,
+     * like lookaround, backreference and flags.
+     */
+    static final class RegexParser {
+
+        private static final int MAX_REPEAT = 32;
+
+        private final String re;
+        private int pos;
+        private boolean unsupported;
+
+        RegexParser(String re) {
+            this.re = re;
+        }
+
+        /**
+         * Parse the regex into syntax tree.
+         *
+         * @return The root node, or null if the regex has unsupported syntax
+         */
+        Node parse() {
+            Node node = parseAlt();
+            if (unsupported || pos != re.length()) {
+                return null;
+            }
+            return node;
+        }
+
+        /**
+         * Mark the regex as unsupported, and skip the remaining syntax.
+         */
+        private Node unsupported() {
+            this.unsupported = true;
+            this.pos = re.length();
+            return new Node(Node.EMPTY);
+        }
+
+        private Node parseAlt() {
+            Node alt = new Node(Node.ALT);
+            alt.children.add(parseSeq());
+            while (pos < re.length() && re.charAt(pos) == '|') {
+                pos++;
+                alt.children.add(parseSeq());
+            }
+            return alt.children.size() == 1 ? alt.children.get(0) : alt;
+        }
+
+        private Node parseSeq() {
+            Node seq = new Node(Node.SEQ);
+            while (pos < re.length() && re.charAt(pos) != '|' && re.charAt(pos) != ')') {
+                Node node = parseQuantifier(parseAtom());
+                if (node.type == Node.SEQ) {
+                    seq.children.addAll(node.children); // flatten group and quotation
+                } else {
+                    seq.children.add(node);
+                }
+            }
+            return seq;
+        }
+
+        private Node parseQuantifier(Node atom) {
+            if (pos >= re.length()) {
+                return atom;
+            }
+            int min, max;
+            char ch = re.charAt(pos);
+            if (ch == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (ch == '*') {
+                min = 0;
+                max = Node.INFINITE;
+                pos++;
+            } else if (ch == '+') {
+                min = 1;
+                max = Node.INFINITE;
+                pos++;
+            } else if (ch == '{') {
+                int close = re.indexOf('}', pos);
+                if (close < 0) {
+                    return unsupported();
+                }
+                String[] parts = re.substring(pos + 1, close).split(",", -1);
+                boolean unbounded = parts.length == 2 && parts[1].trim().isEmpty();
+                min = number(parts[0]);
+                max = parts.length == 1 ? min : unbounded ? Node.INFINITE : number(parts[1]);
+                if (parts.length > 2 || min < 0 || (max < 0 && !unbounded)) {
+                    return unsupported();
+                }
+                pos = close + 1;
+            } else {
+                return atom;
+            }
+            if (pos < re.length() && (re.charAt(pos) == '?' || re.charAt(pos) == '+')) {
+                pos++; // lazy or possessive
+            }
+            // the superset language is fine for filter
+            if (max > MAX_REPEAT) {
+                max = Node.INFINITE;
+            }
+            Node repeat = new Node(Node.REPEAT);
+            repeat.children.add(atom);
+            repeat.min = Math.min(min, MAX_REPEAT);
+            repeat.max = max;
+            return repeat;
+        }
+
+        private Node parseAtom() {
+            char ch = re.charAt(pos++);
+            switch (ch) {
+                case '(':
+                    return parseGroup();
+                case '[':
+                    return parseClass();
+                case '.':
+                    CharSet any = new CharSet();
+                    any.negate();
+                    return charNode(any);
+                case '^':
+                    return new Node(Node.EMPTY);
+                case '$':
+                    return new Node(Node.END);
+                case '\\':
+                    return parseEscape();
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    return unsupported();
+                default:
+                    return charNode(CharSet.of(ch));
+            }
+        }
+
+        private Node parseGroup() {
+            if (re.startsWith("?:", pos) || re.startsWith("?>", pos)) {
+                pos += 2;
+            } else if (re.startsWith("?<", pos) && pos + 2 < re.length()
+                    && re.charAt(pos + 2) != '=' && re.charAt(pos + 2) != '!') {
+                int close = re.indexOf('>', pos);
+                if (close < 0) {
+                    return unsupported();
+                }
+                pos = close + 1;
+            } else if (pos < re.length() && re.charAt(pos) == '?') {
+                return unsupported(); // lookaround or flags
+            }
+            Node node = parseAlt();
+            if (pos >= re.length() || re.charAt(pos) != ')') {
+                return unsupported();
+            }
+            pos++;
+            return node;
+        }
+
+        private Node parseEscape() {
+            if (pos >= re.length()) {
+                return unsupported();
+            }
+            char ch = re.charAt(pos++);
+            switch (ch) {
+                case 'b':
+                case 'B':
+                case 'A':
+                case 'G':
+                case 'z':
+                case 'Z':
+                    return new Node(Node.EMPTY);
+                case 'Q':
+                    int end = re.indexOf("\\E", pos);
+                    String literal = re.substring(pos, end < 0 ? re.length() : end);
+                    pos = end < 0 ? re.length() : end + 2;
+                    Node seq = new Node(Node.SEQ);
+                    for (int i = 0; i < literal.length(); i++) {
+                        seq.children.add(charNode(CharSet.of(literal.charAt(i))));
+                    }
+                    return seq;
+                default:
+                    CharSet set = new CharSet();
+                    if (!classInto(ch, set)) {
+                        int single = literalOf(ch);
+                        if (single < 0) {
+                            return unsupported();
+                        }
+                        set.add(single);
+                    }
+                    return charNode(set);
+            }
+        }
+
+        private Node parseClass() {
+            CharSet set = new CharSet();
+            boolean negate = pos < re.length() && re.charAt(pos) == '^';
+            if (negate) {
+                pos++;
+            }
+            boolean first = true;
+            while (true) {
+                if (pos >= re.length()) {
+                    return unsupported();
+                }
+                char ch = re.charAt(pos++);
+                if (ch == ']' && !first) {
+                    break;
+                }
+                first = false;
+                if (ch == '[' || (ch == '&' && pos < re.length() && re.charAt(pos) == '&')) {
+                    return unsupported(); // nested class or intersection
+                }
+                int from = ch;
+                if (ch == '\\') {
+                    if (pos >= re.length()) {
+                        return unsupported();
+                    }
+                    char esc = re.charAt(pos++);
+                    CharSet escSet = new CharSet();
+                    if (classInto(esc, escSet)) {
+                        set.addAll(escSet); // \d, \w and so on
+                        continue;
+                    }
+                    from = literalOf(esc);
+                }
+                int to = from;
+                if (pos + 1 < re.length() && re.charAt(pos) == '-' && re.charAt(pos + 1) != ']') {
+                    pos++;
+                    to = re.charAt(pos++);
+                    if (to == '\\') {
+                        to = pos < re.length() ? literalOf(re.charAt(pos++)) : -1;
+                    }
+                }
+                if (from < 0 || to < 0) {
+                    return unsupported();
+                }
+                set.addRange(from, to);
+            }
+            if (negate) {
+                set.negate();
+            }
+            return charNode(set);
+        }
+
+        /**
+         * Put the predefined class like '\d' into the set, return false if it isn't an predefined class.
+         * retree's predefined classes are ASCII only, so their negations contain all non-ASCII chars.
+         */
+        private static boolean classInto(char ch, CharSet set) {
+            switch (ch) {
+                case 'd':
+                case 'D':
+                    set.addRange('0', '9');
+                    break;
+                case 'w':
+                case 'W':
+                    set.addRange('a', 'z');
+                    set.addRange('A', 'Z');
+                    set.addRange('0', '9');
+                    set.add('_');
+                    break;
+                case 's':
+                case 'S':
+                    set.addAll(CharSet.of(' ', '\t', '\n', 0x0B, '\f', '\r'));
+                    break;
+                default:
+                    return false;
+            }
+            if (Character.isUpperCase(ch)) {
+                set.negate();
+            }
+            return true;
+        }
+
+        /**
+         * Get the escaped char, return -1 if it's unsupported.
+         */
+        private static int literalOf(char ch) {
+            switch (ch) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                default:
+                    if (Character.isLetterOrDigit(ch)) {
+                        return -1; // hex, unicode, property, backreference and so on
+                    }
+                    return ch;
+            }
+        }
+
+        /**
+         * Parse the repetition's count, return -1 if it isn't an number.
+         */
+        private static int number(String str) {
+            str = str.trim();
+            if (str.isEmpty() || str.length() > 9) {
+                return -1;
+            }
+            for (int i = 0; i < str.length(); i++) {
+                if (str.charAt(i) < '0' || str.charAt(i) > '9') {
+                    return -1;
+                }
+            }
+            return Integer.parseInt(str);
+        }
+
+        private static Node charNode(CharSet set) {
+            Node node = new Node(Node.CHAR);
+            node.set = set;
+            return node;
+        }
+    }
+
+}
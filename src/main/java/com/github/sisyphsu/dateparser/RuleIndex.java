@@ -0,0 +1,64 @@
+package com.github.sisyphsu.dateparser;
+
+import com.github.sisyphsu.retree.ReMatcher;
+import com.github.sisyphsu.retree.ReTree;
+
+import java.util.List;
+
+/**
+ * RuleIndex gates the rules' ReTree by the char at the matching offset, the parser skips the matching
+ * if no rule could start with it, like the separators between dates and words.
+ * <p>
+ * All rules are compiled into one ReTree, which merges the rules having alike prefix and tries them in its own order,
+ * so the rules aren't split or reordered here, and the same rule wins as before.
+ * <p>
+ * RuleIndex is immutable, so it's shared by all parsers of the same rules, and every parser matches
+ * the shared ReTree by its own ReMatcher.
+ *
+ * @author sulin
+ * @since 2026-10-19 20:36:42
+ */
+final class RuleIndex {
+
+    private static final int OTHER = 128;
+    private static final int END = 129;
+
+    /**
+     * Whether any rule could start with the ASCII char or the non-ASCII char, or match empty at the end
+     */
+    private final boolean[] starts = new boolean[END + 1];
+    private final ReTree tree;
+
+    /**
+     * @param rules  All rules in order
+     * @param firsts The chars which any rule could start with, see {@link RuleFilter#firsts}
+     */
+    RuleIndex(List<String> rules, RuleFilter.CharSet firsts) {
+        this.tree = new ReTree(rules.toArray(new String[0]));
+        for (int ch = 0; ch <= OTHER; ch++) {
+            starts[ch] = firsts.contains(ch);
+        }
+        // only the rule which could match empty is possible at the end
+        starts[END] = firsts.isFull();
+    }
+
+    /**
+     * Create an new ReMatcher of all rules for the caller.
+     */
+    ReMatcher matcher() {
+        return new ReMatcher(tree, "");
+    }
+
+    /**
+     * Check whether any rule could start matching at the specified offset.
+     *
+     * @param input  The input, which has been folded into lowercase
+     * @param offset The matching offset, the length of input means the end
+     * @return False if no rule could match at the offset
+     */
+    boolean mightStart(CharSequence input, int offset) {
+        int ch = offset < input.length() ? input.charAt(offset) : END;
+        return starts[ch < OTHER || ch == END ? ch : OTHER];
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.github.sisyphsu.dateparser;
+
+import com.github.sisyphsu.retree.ReMatcher;
+
+/**
+ * RulePlan is the precompiled dispatching plan of one rule, so parsing needn't lookup rule's kind and
+ * switch group's name by String.
+ *
+ * @author sulin
+ * @since 2026-10-19 18:40:15
+ */
+final class RulePlan {
+
+    static final int UNNAMED = 0;
+    static final int WEEK = 1;
+    static final int YEAR = 2;
+    static final int MONTH = 3;
+    static final int DAY = 4;
+    static final int HOUR = 5;
+    static final int MINUTE = 6;
+    static final int SECOND = 7;
+    static final int NS = 8;
+    static final int M = 9;
+    static final int ZERO = 10;
+    static final int ZONE_OFFSET = 11;
+    static final int ZONE_NAME = 12;
+    static final int DAY_OR_MONTH = 13;
+    static final int UNIXSECOND = 14;
+    static final int MILLISECOND = 15;
+    static final int MICROSECOND = 16;
+    static final int NANOSECOND = 17;
+    static final int UNKNOWN = 18;
+
+    /**
+     * The rule's regex
+     */
+    final String rule;
+    /**
+     * The handler of customized rule, null means standard rule
+     */
+    final RuleHandler handler;
+    /**
+     * The family of predefined rule, null means the rule is added by user
+     */
+    final RuleFamily family;
+    /**
+     * The index of rule in its RuleTable
+     */
+    final int id;
+    /**
+     * The field code of every group, index 0 is unused.
+     * It's compiled at the first hit, because retree exposes group's name after matching only.
+     * It's volatile because the plan is shared by parsers in different threads.
+     */
+    private volatile int[] fields;
+
+    RulePlan(int id, String rule, RuleHandler handler, RuleFamily family) {
+        this.id = id;
+        this.rule = rule;
+        this.handler = handler;
+        this.family = family;
+    }
+
+    /**
+     * Get the field codes of the matched rule's groups.
+     */
+    int[] fields(ReMatcher matcher) {
+        int[] result = this.fields;
+        if (result == null) {
+            result = new int[matcher.groupCount() + 1];
+            for (int i = 1; i < result.length; i++) {
+                result[i] = fieldCode(matcher.groupName(i));
+            }
+            this.fields = result;
+        }
+        return result;
+    }
+
+    /**
+     * Convert the group's name into field code.
+     */
+    static int fieldCode(String groupName) {
+        if (groupName == null) {
+            return UNNAMED;
+        }
+        switch (groupName) {
+            case "week":
+                return WEEK;
+            case "year":
+                return YEAR;
+            case "month":
+                return MONTH;
+            case "day":
+                return DAY;
+            case "hour":
+                return HOUR;
+            case "minute":
+                return MINUTE;
+            case "second":
+                return SECOND;
+            case "ns":
+                return NS;
+            case "m":
+                return M;
+            case "zero":
+                return ZERO;
+            case "zoneOffset":
+                return ZONE_OFFSET;
+            case "zoneName":
+                return ZONE_NAME;
+            case "dayOrMonth":
+                return DAY_OR_MONTH;
+            case "unixsecond":
+                return UNIXSECOND;
+            case "millisecond":
+                return MILLISECOND;
+            case "microsecond":
+                return MICROSECOND;
+            case "nanosecond":
+                return NANOSECOND;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.github.sisyphsu.dateparser;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * RuleTable is the compiled form of rules, like plans, RuleIndex and RuleFilter. It's immutable except
+ * the lazy compiled parts, so it's shared by all parsers which have the same rules and handlers,
+ * and every parser keeps its own matching state only.
+ * <p>
+ * Tables are cached by weak reference, the table is released after all of its parsers were released,
+ * and its key, which holds the rules and handlers, is purged from the cache at the next lookup.
+ *
+ * @author sulin
+ * @since 2026-10-19 23:48:12
+ */
+final class RuleTable {
+
+    private static final Map<List<Object>, TableRef> TABLES = new HashMap<>();
+    private static final ReferenceQueue<RuleTable> RELEASED = new ReferenceQueue<>();
+
+    /**
+     * All rules in their original order
+     */
+    final String[] rules;
+    /**
+     * The plan of every rule, plans[i].id is i
+     */
+    final RulePlan[] plans;
+    /**
+     * The open-addressing table of plans by rule's hash, its length is power of 2
+     */
+    private final RulePlan[] slots;
+    final RuleFilter filter;
+    final RuleIndex index;
+    /**
+     * The epoch plan of every input length, null means the epoch couldn't be parsed by length
+     */
+    final RulePlan[] epochPlans;
+    /**
+     * Whether any rule matches some digits only, like '2019' or '[0-5]', so the changed digits may change the matched rule
+     */
+    final boolean digitSensitive;
+    private RuleTable(List<String> rules, Set<String> stdRules, Map<String, RuleHandler> cstRules,
+                      Map<String, RuleFamily> families) {
+        this.rules = rules.toArray(new String[0]);
+        this.plans = new RulePlan[this.rules.length];
+        this.slots = new RulePlan[Integer.highestOneBit(Math.max(2, this.rules.length * 2) - 1) << 1];
+        for (int i = 0; i < plans.length; i++) {
+            String rule = this.rules[i];
+            RuleHandler handler = stdRules.contains(rule) ? null : cstRules.get(rule);
+            RulePlan plan = plans[i] = new RulePlan(i, rule, handler, families.get(rule));
+            int slot = this.slot(rule);
+            if (slots[slot] == null) {
+                slots[slot] = plan;
+            }
+        }
+        this.epochPlans = this.epochPlans();
+        this.digitSensitive = this.digitSensitive();
+        this.filter = new RuleFilter(rules);
+        this.index = new RuleIndex(rules, filter.firsts);
+    }
+
+    /**
+     * Get the shared table of the specified rules, compile it if not exists.
+     *
+     * @param rules    All rules in order
+     * @param stdRules The standard rules
+     * @param cstRules The handlers of customized rules
+     * @param families The families of predefined rules
+     * @return RuleTable
+     */
+    static RuleTable of(List<String> rules, Set<String> stdRules, Map<String, RuleHandler> cstRules,
+                        Map<String, RuleFamily> families) {
+        Object event = ParseEvents.beginBuild();
+        // the handler is compared by identity mostly, lambda doesn't override equals
+        Object[] key = new Object[rules.size() * 3];
+        for (int i = 0; i < rules.size(); i++) {
+            String rule = rules.get(i);
+            key[i * 3] = rule;
+            key[i * 3 + 1] = stdRules.contains(rule) ? null : cstRules.get(rule);
+            key[i * 3 + 2] = families.get(rule);
+        }
+        List<Object> keyList = Arrays.asList(key);
+        synchronized (TABLES) {
+            for (Reference<? extends RuleTable> ref; (ref = RELEASED.poll()) != null; ) {
+                TABLES.remove(((TableRef) ref).key, ref);
+            }
+            TableRef ref = TABLES.get(keyList);
+            RuleTable table = ref == null ? null : ref.get();
+            boolean cached = table != null;
+            if (!cached) {
+                table = new RuleTable(rules, stdRules, cstRules, families);
+                TABLES.put(keyList, new TableRef(keyList, table));
+            }
+            ParseEvents.endBuild(event, rules.size(), stdRules.size(), cached);
+            return table;
+        }
+    }
+
+    /**
+     * The count of cached tables, including the released ones which aren't purged yet.
+     */
+    static int cachedCount() {
+        synchronized (TABLES) {
+            return TABLES.size();
+        }
+    }
+
+    /**
+     * Get the plan of the specified rule, it's usually the same String instance as the compiled one.
+     */
+    RulePlan plan(String rule) {
+        for (int i = this.slot(rule); ; i = (i + 1) & (slots.length - 1)) {
+            RulePlan plan = slots[i];
+            if (plan == null || plan.rule == rule || plan.rule.equals(rule)) {
+                return plan;
+            }
+        }
+    }
+
+    /**
+     * Find the slot of rule, or the first empty slot after it.
+     */
+    private int slot(String rule) {
+        int h = rule.hashCode();
+        int i = (h ^ (h >>> 16)) & (slots.length - 1);
+        while (slots[i] != null && !slots[i].rule.equals(rule)) {
+            i = (i + 1) & (slots.length - 1);
+        }
+        return i;
+    }
+
+    /**
+     * Find the epoch rule of every input length, they must win the all-digit input of its length,
+     * because no other predefined rule could match it. Return null if any other rule could start with digit,
+     * or no epoch rule is included.
+     */
+    private RulePlan[] epochPlans() {
+        RulePlan[] result = new RulePlan[20];
+        boolean found = false;
+        for (RulePlan plan : plans) {
+            int from, to;
+            switch (plan.rule) {
+                case DateParserBuilder.UNIXSECOND_RULE:
+                    from = to = 10;
+                    break;
+                case DateParserBuilder.MILLISECOND_RULE:
+                    from = 11;
+                    to = 13;
+                    break;
+                case DateParserBuilder.MICROSECOND_RULE:
+                    from = to = 16;
+                    break;
+                case DateParserBuilder.NANOSECOND_RULE:
+                    from = to = 19;
+                    break;
+                default:
+                    if (plan.family == null && startsWithDigit(plan.rule)) {
+                        return null;
+                    }
+                    continue;
+            }
+            if (plan.family != RuleFamily.EPOCH) {
+                return null; // replaced by user's customized rule
+            }
+            for (int len = from; len <= to; len++) {
+                result[len] = this.plan(plan.rule);
+            }
+            found = true;
+        }
+        return found ? result : null;
+    }
+
+    /**
+     * Check whether any rule contains literal digit, the predefined zone rules are excluded,
+     * because their digits follow the zone's letters, like 'etc/gmt+8'.
+     */
+    private boolean digitSensitive() {
+        for (RulePlan plan : plans) {
+            if (plan.family != RuleFamily.ZONE_ID && hasDigitLiteral(plan.rule)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the rule contains literal digit, the escapes like '\d' and quantifiers like '{1,2}' are skipped,
+     * but the quoted text like '\Q2019\E' is checked.
+     */
+    static boolean hasDigitLiteral(String rule) {
+        for (int i = 0; i < rule.length(); i++) {
+            char ch = rule.charAt(i);
+            if (ch == '\\' && i + 1 < rule.length()) {
+                char next = rule.charAt(++i);
+                if (next >= '0' && next <= '9') {
+                    return true;
+                }
+                if (next == 'Q') {
+                    int end = rule.indexOf("\\E", i);
+                    end = end < 0 ? rule.length() : end;
+                    for (int j = i + 1; j < end; j++) {
+                        if (rule.charAt(j) >= '0' && rule.charAt(j) <= '9') {
+                            return true;
+                        }
+                    }
+                    i = end + 1;
+                }
+            } else if (ch == '{') {
+                int end = rule.indexOf('}', i);
+                i = end < 0 ? rule.length() : end;
+            } else if (ch >= '0' && ch <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithDigit(String rule) {
+        RuleFilter.CharSet firsts = RuleFilter.firstChars(rule);
+        for (char ch = '0'; ch <= '9'; ch++) {
+            if (firsts.contains(ch)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The weak reference of the cached table, it remembers the key to remove the entry after the table was released.
+     */
+    private static final class TableRef extends WeakReference<RuleTable> {
+
+        private final List<Object> key;
+
+        TableRef(List<Object> key, RuleTable table) {
+            super(table, RELEASED);
+            this.key = key;
+        }
+
+    }
+
+}
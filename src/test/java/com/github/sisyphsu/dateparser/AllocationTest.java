@@ -0,0 +1,140 @@
+package com.github.sisyphsu.dateparser;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Consumer;
+
+/**
+ * Check the bytes allocated per parsing of different output APIs, to avoid allocation's regression.
+ * <p>
+ * The budget is the average of a representative corpus after warmup, it should be lowered if some optimization
+ * reduced the allocation. The budgets depend on JIT's escape analysis, so they run by the budget profile only.
+ *
+ * @author sulin
+ * @since 2026-10-19 15:42:18
+ */
+@Tag("budget")
+public class AllocationTest {
+
+    private static final int WARMUP = 10000;
+    private static final int ROUND = 5000;
+
+    private static final String[] CORPUS = {
+            "2019-10-01",
+            "2019-10-01 10:20:30",
+            "2019-10-01T10:20:30.123+08:00",
+            "Mon Jan 02 15:04:05 -0700 2006",
+            "03/31/2014 22:05",
+            "1384216367189",
+            "2014-12-16 06:20:00 UTC",
+            "September 17, 2012 10:09am",
+            "2019年10月01日 10:20:30",
+    };
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    private final DateParser parser = DateParser.newBuilder().build();
+    private final DateBuilder builder = new DateBuilder();
+
+    @BeforeAll
+    public static void setup() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void parseDate() {
+        assertBudget("parseDate", 80, parser::parseDate);
+    }
+
+    @Test
+    public void parseCalendar() {
+        assertBudget("parseCalendar", 640, parser::parseCalendar);
+    }
+
+    @Test
+    public void parseDateTime() {
+        assertBudget("parseDateTime", 128, parser::parseDateTime);
+    }
+
+    @Test
+    public void parseOffsetDateTime() {
+        assertBudget("parseOffsetDateTime", 160, parser::parseOffsetDateTime);
+    }
+
+    @Test
+    public void parseInstant() {
+        assertBudget("parseInstant", 40, parser::parseInstant);
+    }
+
+    @Test
+    public void parseEpochSecond() {
+        assertBudget("parseEpochSecond", 16, parser::parseEpochSecond);
+    }
+
+    @Test
+    public void normalize() {
+        StringBuilder sb = new StringBuilder(64);
+        assertBudget("normalize", 16, s -> {
+            sb.setLength(0);
+            parser.normalize(s, IsoFormat.DEFAULT, sb);
+        });
+    }
+
+    @Test
+    public void normalizeChars() {
+        char[] buf = new char[64];
+        assertBudget("normalize(char[])", 16, s -> parser.normalize(s, IsoFormat.DEFAULT, buf, 0));
+    }
+
+    @Test
+    public void parseBuilder() {
+        assertBudget("parse", 16, s -> parser.parse(s, builder));
+    }
+
+    @Test
+    public void parsePrefix() {
+        assertBudget("parsePrefix", 16, s -> parser.parsePrefix(s, 0, builder));
+    }
+
+    @Test
+    public void isParseable() {
+        assertBudget("isParseable", 16, parser::isParseable);
+    }
+
+    @Test
+    public void isParseableFailed() {
+        String[] invalids = {"2019-13-01", "2019-10-01 10:70:30", "hello world", "550e8400-e29b-41d4-a716-446655440000"};
+        assertBudget("isParseable(invalid)", 16, invalids, parser::isParseable);
+    }
+
+    private void assertBudget(String name, long budget, Consumer<String> parse) {
+        assertBudget(name, budget, CORPUS, parse);
+    }
+
+    private void assertBudget(String name, long budget, String[] corpus, Consumer<String> parse) {
+        for (int i = 0; i < WARMUP; i++) {
+            for (String text : corpus) {
+                parse.accept(text);
+            }
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROUND; i++) {
+            for (String text : corpus) {
+                parse.accept(text);
+            }
+        }
+        long bytes = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / ((long) ROUND * corpus.length);
+        assert bytes <= budget : name + " allocated " + bytes + " bytes per parsing, exceeds the budget " + budget;
+    }
+
+}
@@ -3,7 +3,10 @@ package com.github.sisyphsu.dateparser;
 import org.junit.jupiter.api.Test;
 
 import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.Locale;
 import java.util.TimeZone;
 
 /**
@@ -77,6 +80,138 @@ public class DateBuilderTest {
         assert builder.getZone().equals(TimeZone.getDefault());
     }
 
+    @Test
+    public void testPrepareRepeatedly() {
+        DateBuilder builder = new DateBuilder();
+        builder.reset();
+        builder.setYear(2019);
+        builder.setHour(5);
+        builder.setPm(true);
+        assert builder.toOffsetDateTime().getHour() == 17;
+        assert builder.toLocalDateTime().equals(builder.toOffsetDateTime().toLocalDateTime().plusSeconds(TimeZone.getDefault().getRawOffset() / 1000));
+        assert builder.getHour() == 17;
+        assert !builder.isPm();
+    }
+
+    @Test
+    public void testInstant() {
+        DateBuilder builder = new DateBuilder();
+        int[][] dates = {{1970, 1, 1}, {1969, 12, 31}, {2000, 2, 29}, {2019, 10, 1}, {1900, 3, 1}, {1, 1, 1}, {-400, 2, 28}, {9999, 12, 31}};
+        for (int[] date : dates) {
+            assert DateBuilder.epochDay(date[0], date[1], date[2]) == LocalDate.of(date[0], date[1], date[2]).toEpochDay();
+            builder.reset();
+            builder.setYear(date[0]);
+            builder.setMonth(date[1]);
+            builder.setDay(date[2]);
+            builder.setHour(11);
+            builder.setPm(true);
+            builder.setNs(123);
+            assert builder.toInstant().equals(builder.toOffsetDateTime().toInstant());
+            builder.setZoneOffsetSetted(true);
+            builder.setZoneOffset(-570);
+            assert builder.toEpochSecond() == builder.toOffsetDateTime().toEpochSecond();
+        }
+
+        builder.reset();
+        builder.setUnixsecond(1384216367);
+        builder.setNs(189000000);
+        assert builder.toInstant().toEpochMilli() == 1384216367189L;
+
+        DateParser parser = DateParser.newBuilder().build();
+        assert parser.parseInstant("2019-10-01T10:20:30.123+08:00").equals(Instant.parse("2019-10-01T02:20:30.123Z"));
+        assert parser.parseEpochSecond("2019-10-01") == LocalDate.of(2019, 10, 1).toEpochDay() * 86400;
+        assert DateParserUtils.parseEpochSecond("1384216367189") == 1384216367;
+        try {
+            parser.parseInstant("2019-02-30");
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof DateTimeException;
+        }
+    }
+
+    @Test
+    public void testWriteIso() {
+        char[] buf = new char[IsoFormat.MAX_LENGTH];
+        DateBuilder builder = new DateBuilder();
+        int[][] dates = {{2019, 10, 1, 10, 20, 30, 123000000}, {2019, 3, 10, 2, 30, 0, 0}, {2019, 11, 3, 1, 30, 0, 1000},
+                {2037, 10, 27, 18, 24, 31, 5}, {1883, 11, 18, 12, 5, 0, 0}, {12, 1, 1, 0, 0, 1, 0}, {-1, 12, 31, 0, 0, 0, 0},
+                {-12345, 1, 1, 0, 0, 0, 0}, {12345, 1, 1, 0, 0, 0, 0}};
+        TimeZone[] zones = {null, TimeZone.getTimeZone("America/New_York"), TimeZone.getTimeZone("Asia/Gaza"),
+                TimeZone.getTimeZone("Asia/Kolkata")};
+        for (int[] date : dates) {
+            for (TimeZone zone : zones) {
+                builder.reset();
+                builder.setYear(date[0]);
+                builder.setMonth(date[1]);
+                builder.setDay(date[2]);
+                builder.setHour(date[3]);
+                builder.setMinute(date[4]);
+                builder.setSecond(date[5]);
+                builder.setNs(date[6]);
+                builder.setZone(zone);
+                OffsetDateTime dt = builder.toOffsetDateTime();
+                assert builder.toEpochSecond() == dt.toEpochSecond();
+                assert new String(buf, 0, builder.writeIso(buf, 0, IsoFormat.DEFAULT)).equals(dt.toString());
+                String millis = new String(buf, 0, builder.writeIso(buf, 0, IsoFormat.DEFAULT.precision(3).zulu(false)));
+                assert millis.equals(dt.format(DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSxxxxx")));
+            }
+        }
+
+        builder.reset();
+        builder.setUnixsecond(1384216367);
+        builder.setNs(189000000);
+        assert new String(buf, 0, builder.writeIso(buf, 0, IsoFormat.DEFAULT)).equals("2013-11-12T00:32:47.189Z");
+        assert new String(buf, 0, builder.writeIso(buf, 0, IsoFormat.DEFAULT.precision(0))).equals("2013-11-12T00:32:47Z");
+
+        builder.reset();
+        builder.setYear(2019);
+        builder.setZoneOffsetSetted(true);
+        builder.setZoneOffset(-570);
+        assert new String(buf, 0, builder.writeIso(buf, 0, IsoFormat.DEFAULT.colon(false))).equals("2019-01-01T00:00-0930");
+
+        builder.setMonth(13);
+        try {
+            builder.writeIso(buf, 0, IsoFormat.DEFAULT);
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof DateTimeException;
+        }
+    }
+
+    @Test
+    public void testDateWithoutCalendar() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+        int[][] dates = {{2019, 3, 10, 2, 30}, {2019, 11, 3, 1, 30}, {2019, 10, 1, 10, 20}, {1883, 11, 18, 12, 5},
+                {1500, 6, 1, 0, 0}, {2100, 7, 1, 23, 59}, {2019, 2, 30, 10, 0}};
+        try {
+            for (Locale locale : new Locale[]{Locale.US, new Locale("th", "TH")}) {
+                Locale.setDefault(Locale.Category.FORMAT, locale);
+                for (String zoneId : new String[]{"America/New_York", "Asia/Shanghai", "Africa/Casablanca"}) {
+                    TimeZone.setDefault(TimeZone.getTimeZone(zoneId));
+                    for (int[] date : dates) {
+                        DateBuilder builder = new DateBuilder();
+                        builder.reset();
+                        builder.setYear(date[0]);
+                        builder.setMonth(date[1]);
+                        builder.setDay(date[2]);
+                        builder.setHour(date[3]);
+                        builder.setMinute(date[4]);
+                        builder.setNs(123456789);
+                        Calendar calendar = Calendar.getInstance();
+                        calendar.set(date[0], date[1] - 1, date[2], date[3], date[4], 0);
+                        calendar.set(Calendar.MILLISECOND, 123);
+                        assert builder.toDate().getTime() == calendar.getTimeInMillis();
+                        assert builder.toCalendar().equals(calendar);
+                    }
+                }
+            }
+        } finally {
+            TimeZone.setDefault(defaultZone);
+            Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+        }
+    }
+
     @Test
     public void testInvalidCalendar() {
         DateBuilder builder = new DateBuilder();
@@ -3,8 +3,10 @@ package com.github.sisyphsu.dateparser;
 import org.junit.jupiter.api.Test;
 
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 
 /**
  * @author sulin
@@ -76,4 +78,63 @@ public class DateParserBuilderTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testProfile() {
+        List<String> corpus = Arrays.asList("2019-10-01 10:20:30", "2019-10-02 11:20:30 +0800", "2019-10-03");
+        DateParserBuilder builder = DateParser.newBuilder().profile(corpus);
+        List<String> rules = builder.getRules();
+        assert rules.size() > 0 && rules.size() < 10;
+
+        DateParser parser = builder.build();
+        for (String text : corpus) {
+            assert parser.parseDate(text).equals(DateParserUtils.parseDate(text));
+        }
+        assert !parser.isParseable("Mon Jan 02 15:04:05 -0700 2006");
+
+        // fallback to the full parser
+        parser = builder.fallback(true).build();
+        assert parser.isParseable("Mon Jan 02 15:04:05 -0700 2006");
+
+        // reuse the exported rules
+        parser = DateParser.newBuilder().retainRules(rules).build();
+        for (String text : corpus) {
+            assert parser.parseDate(text).equals(DateParserUtils.parseDate(text));
+        }
+
+        // frequency order
+        List<String> sorted = DateParser.newBuilder()
+                .profile(Arrays.asList("2019-10-01", "2019-10-02", "2019-10-03 10:20:30 +0800"), true)
+                .getRules();
+        assert sorted.size() == 3;
+        assert sorted.containsAll(DateParser.newBuilder().profile(Arrays.asList("2019-10-03 10:20:30 +0800")).getRules());
+
+        try {
+            DateParser.newBuilder().profile(Arrays.asList("hello", "world"));
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof IllegalArgumentException;
+        }
+    }
+
+    @Test
+    public void testFamilies() {
+        int total = DateParser.newBuilder().getRules().size();
+        DateParserBuilder builder = DateParser.newBuilder().excludeFamilies(RuleFamily.ZONE_ID, RuleFamily.WEEKDAY);
+        assert builder.getRules().size() < total / 2;
+        DateParser parser = builder.build();
+        assert parser.isParseable("2019-10-01 10:20:30 +0800");
+        assert !parser.isParseable("2014-12-16 06:20:00 UTC");
+        assert !parser.isParseable("Mon, 02 Jan 2006");
+
+        parser = DateParser.newBuilder()
+                .includeFamilies(RuleFamily.NUMERIC_DATE, RuleFamily.TIME)
+                .addRule("【(?<year>\\d{4})】")
+                .build();
+        assert parser.isParseable("2019-10-01 10:20:30");
+        assert parser.isParseable("【2019】");
+        assert !parser.isParseable("1569902400");
+        assert !parser.isParseable("Oct 7, 1970");
+        assert !parser.isParseable("10:20:30 pm");
+    }
+
+}
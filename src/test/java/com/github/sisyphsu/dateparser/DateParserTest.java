@@ -1,13 +1,22 @@
 package com.github.sisyphsu.dateparser;
 
+import com.github.sisyphsu.retree.ReMatcher;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.regex.PatternSyntaxException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -43,7 +52,7 @@ public class DateParserTest {
 
     @Test
     public void testCharArray() {
-        DateParser.CharArray array = new DateParser.CharArray(new char[0]);
+        DateParser.CharArray array = new DateParser.CharArray("");
         assert array.length() == 0;
         try {
             array.subSequence(0, 0);
@@ -53,6 +62,343 @@ public class DateParserTest {
         }
     }
 
+    @Test
+    public void testCaseFolding() {
+        String text = "Mon Jan 02 15:04:05 -0700 2006";
+        assert parser.parseDate(text.toUpperCase()).equals(parser.parseDate(text.toLowerCase()));
+        DateBuilder builder = new DateBuilder();
+        parser.parse(new StringBuilder(text), builder);
+        assert builder.toDate().equals(parser.parseDate(text));
+        assert parser.parseDateTime("SEPTEMBER 17, 2012 10:09AM").getMonth() == Month.SEPTEMBER;
+    }
+
+    @Test
+    public void testIsParseable() {
+        assert parser.isParseable("2019-10-01 00:10:20 +0800");
+        assert parser.isParseable("Mon Jan 02 15:04:05 -0700 2006");
+        assert parser.isParseable("1384216367189");
+
+        assert !parser.isParseable(null);
+        assert !parser.isParseable("");
+        assert !parser.isParseable("hello world");
+        assert !parser.isParseable("2019-13-10");
+        assert !parser.isParseable("2019-12-12 61:00:00");
+        assert !parser.isParseable("2019-12-12 00:00:00 +30:00");
+        assert !parser.isParseable("13.13.2000");
+
+        DateParser errParser = DateParser.newBuilder()
+                .addRule("(?<invalid>\\d{3})")
+                .addRule("x(\\d{3})", (input, matcher, dt) -> {
+                    throw new IllegalStateException();
+                })
+                .build();
+        assert !errParser.isParseable("123");
+        assert !errParser.isParseable("x123");
+
+        int count = parser.countParseable(Arrays.asList("2019-10-01", "2019-10-01 10:20:30", "uuid", "2019-10-41"));
+        assert count == 2;
+    }
+
+    @Test
+    public void testMightBeDate() {
+        DateParser parser = DateParser.newBuilder().build();
+        String[] texts = {"2019-10-01 00:10:20 +0800", "Mon Jan 02 15:04:05 -0700 2006", "1384216367189", "UTC",
+                "MONDAY", "12 o’clock PM, PDT", "2018-09-16T08:00:00+00:00[Europe/London]", "oct. 7, '70",
+                "12-/31/2019"}; // the last one is accepted by retree's backtracking
+        for (String text : texts) {
+            assert parser.isParseable(text);
+            assert parser.mightBeDate(text);
+        }
+        assert !parser.mightBeDate(null);
+        assert !parser.mightBeDate("");
+        assert !parser.mightBeDate("xml");
+        assert !parser.mightBeDate("query");
+        assert !DateParserUtils.mightBeDate("_id");
+        assert DateParserUtils.mightBeDate("2019-10-01");
+
+        // no rule could match 3 leading digits, or the too long digits
+        String[] junks = {"123e4567-e89b-12d3-a456-426614174000", "550e8400-e29b-41d4-a716-446655440000",
+                "192.168.1.1", "127.0.0.1", "12345", "123456789012345678901234"};
+        for (String junk : junks) {
+            assert !parser.isParseable(junk);
+            assert !parser.mightBeDate(junk);
+        }
+
+        // the pre-filter doesn't change parse's error
+        try {
+            parser.parseDate("hello world");
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof DateTimeParseException;
+            assert ((DateTimeParseException) e).getErrorIndex() == 0;
+        }
+
+        // unsupported syntax accepts anything
+        assert new RuleFilter.RegexParser("(?=abc)abc").parse() == null;
+        assert new RuleFilter.RegexParser("\\x20").parse() == null;
+        assert new RuleFilter.RegexParser("a{1,x}").parse() == null;
+        RuleFilter filter = new RuleFilter(Arrays.asList("(?=abc)abc", "\\d{4}"));
+        assert filter.mightMatch("hello");
+        assert filter.mightMatch("123");
+
+        // the leading digits are screened by all rules' sequences, '$' ends them
+        filter = new RuleFilter(Arrays.asList("(?<year>\\d{4})$", "\\d{2}:\\d{2}", "\\d{1,2}[a-z]{8}"));
+        assert filter.mightMatch("2019");
+        assert filter.mightMatch("10:20");
+        assert filter.mightMatch("1january");
+        assert !filter.mightMatch("hello");
+        assert !filter.mightMatch("123january");
+        assert !filter.mightMatch("20191");
+        assert filter.mightMatch("x20191", 1) == filter.mightMatch("20191");
+        assert new RuleFilter(Arrays.asList("\\d{4}")).mightMatch("20191");
+        filter = new RuleFilter(Arrays.asList("(?<year>\\d{4})年", "\\Q[utc]\\E"));
+        assert filter.firsts.contains('2') && filter.firsts.contains('[');
+        assert !filter.firsts.contains('(') && !filter.firsts.contains('年');
+        assert !filter.mightMatch("201年");
+        assert new RuleFilter(Arrays.asList("(?=abc)abc")).firsts.isFull();
+        assert new RuleFilter(Arrays.asList("a?")).firsts.isFull();
+    }
+
+    private static RuleIndex ruleIndex(String... rules) {
+        List<String> list = Arrays.asList(rules);
+        return new RuleIndex(list, new RuleFilter(list).firsts);
+    }
+
+    @Test
+    public void testRuleIndex() {
+        RuleIndex index = ruleIndex("\\d{4}", "[a-z]+", "\\W*x");
+        assert index.mightStart("2019", 0) && index.mightStart("x2019", 1) && index.mightStart("-x", 0);
+        assert !index.mightStart("_x", 0);
+        assert !ruleIndex("\\d{4}", "[a-z]+").mightStart("年", 0);
+        // no rule could match empty at the end
+        assert !index.mightStart("2019", 4);
+        assert ruleIndex("\\d{4}", "a?").mightStart("2019", 4);
+        // the compiled ReTree is shared, but every caller matches by its own ReMatcher
+        ReMatcher matcher = index.matcher().reset("x2019");
+        ReMatcher other = index.matcher().reset("1970");
+        assert matcher.find(1) && matcher.re().equals("\\d{4}");
+        assert other != matcher && other.find(0) && matcher.find(1) && matcher.start() == 1;
+
+        // ReTree merges the alike prefix, so ' ?zz' wins before '[a-z]{2}' as before
+        ReMatcher merged = ruleIndex(" ?a", "[a-z]{2}", " ?zz").matcher().reset("zz");
+        assert merged.find(0) && merged.re().equals(" ?zz");
+
+        // the zone offset must win the time at '-', same as the whole ReTree
+        OffsetDateTime dt = parser.parseOffsetDateTime("2009-08-12T22:15:09-07:00");
+        assert dt.getHour() == 22;
+        assert dt.getOffset().getTotalSeconds() == -7 * 3600;
+
+        // the invalid rule still fails at building
+        try {
+            DateParser.newBuilder().addRule("(?<year>\\d{4}").build();
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof PatternSyntaxException;
+        }
+    }
+
+    @Test
+    public void testFindAll() {
+        String text = "Received: Mon, 02 Jan 2006 15:04:05 -0700 (MST), may I help?\n"
+                + "[2019-10-01 10:20:30.123] started at 2019-10-01T10:20:31Z, retry on oct 7, 1970.\n"
+                + "<td>12/31/2019</td> monitor 1.2.3 mon UTC 123abc 日期2014年04月08日";
+        List<String> spans = new ArrayList<>();
+        List<OffsetDateTime> dates = new ArrayList<>();
+        int count = parser.findAll(text, (str, start, end, dt) -> {
+            spans.add(str.subSequence(start, end).toString());
+            dates.add(dt.toOffsetDateTime());
+        });
+        assert count == 6;
+        assert spans.equals(Arrays.asList("Mon, 02 Jan 2006 15:04:05 -0700 (MST)", "2019-10-01 10:20:30.123",
+                "2019-10-01T10:20:31Z", "oct 7, 1970", "12/31/2019", "2014年04月08日"));
+        for (int i = 0; i < spans.size(); i++) {
+            assert dates.get(i).equals(parser.parseOffsetDateTime(spans.get(i)));
+        }
+
+        // the zone name stops at its ')', and doesn't swallow the next date
+        List<String> named = new ArrayList<>();
+        parser.findAll("Sent 2019-10-01 10:20:30 (CEST) to bob (admin) and 2020-01-02 (x) done.",
+                (str, start, end, dt) -> named.add(str.subSequence(start, end).toString()));
+        assert named.equals(Arrays.asList("2019-10-01 10:20:30 (CEST)", "2020-01-02"));
+        named.clear();
+        parser.findAll("see 2019-10-01 10:20 (a) and 2019-10-02 11:00 (b)",
+                (str, start, end, dt) -> named.add(str.subSequence(start, end).toString()));
+        assert named.equals(Arrays.asList("2019-10-01 10:20 (a)", "2019-10-02 11:00 (b)"));
+        // the whole input's parsing still accepts the greedy zone name
+        assert parser.parseDateTime("2019-10-01 10:20 (a) and (b)").equals(LocalDateTime.of(2019, 10, 1, 10, 20));
+
+        assert parser.findAll("hello world, may I help?", (str, start, end, dt) -> {
+            assert false;
+        }) == 0;
+        assert DateParserUtils.findAll("at 2019-10-01", (str, start, end, dt) -> {
+            assert start == 3 && end == str.length();
+        }) == 1;
+    }
+
+    @Test
+    public void testParsePrefix() {
+        DateBuilder builder = new DateBuilder();
+        String line = "2019-10-01 10:20:30.123 INFO started";
+        int end = parser.parsePrefix(line, 0, builder);
+        assert end == 23;
+        assert builder.toLocalDateTime().equals(parser.parseDateTime("2019-10-01 10:20:30.123"));
+
+        line = "[main] 2019-10-01T10:20:30+08:00: done";
+        end = parser.parsePrefix(line, 7, builder);
+        assert line.substring(end).equals(": done");
+        assert builder.toOffsetDateTime().equals(parser.parseOffsetDateTime("2019-10-01T10:20:30+08:00"));
+
+        // the zone name stops at its ')', not the last one
+        line = "2019-10-01 10:20:30 (CEST) to bob (admin) done";
+        end = parser.parsePrefix(line, 0, builder);
+        assert line.substring(end).equals(" to bob (admin) done");
+
+        assert parser.parsePrefix("hello 2019-10-01", 0, builder) == -1;
+        assert parser.parsePrefix("2019-13-01 hello", 0, builder) == -1;
+        assert parser.parsePrefix("2019-10-01", 10, builder) == -1;
+        assert parser.parsePrefix("", 0, builder) == -1;
+        try {
+            parser.parsePrefix("2019-10-01", 11, builder);
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof IndexOutOfBoundsException;
+        }
+    }
+
+    @Test
+    public void testEpoch() {
+        DateBuilder builder = new DateBuilder();
+        DateBuilder expect = new DateBuilder();
+        String[] texts = {"1384216367", "13842163671", "1384216367189", "1384216367189123", "1384216367189123456",
+                "20191001", "20191001102030", "201910011020", "13842163x7189"};
+        DateParser digitParser = DateParser.newBuilder()
+                .addRule("^(?<year>\\d{4})(?<month>\\d{2})(?<day>\\d{2})(?<hour>\\d{2})$").build();
+        for (DateParser p : new DateParser[]{parser, digitParser, DateParser.newBuilder().includeFamilies(RuleFamily.EPOCH).build()}) {
+            for (String text : texts) {
+                // parsePrefix matches by rules always
+                int end = p.parsePrefix(text, 0, expect);
+                assert p.isParseable(text) == (end == text.length());
+                if (end != text.length()) {
+                    continue;
+                }
+                p.parse(text, builder);
+                assert builder.getUnixsecond() == expect.getUnixsecond();
+                assert builder.getNs() == expect.getNs();
+                assert builder.toLocalDateTime().equals(expect.toLocalDateTime());
+            }
+        }
+        parser.parse("1384216367189123", builder);
+        assert builder.getUnixsecond() == 1384216367 && builder.getNs() == 189123000;
+        digitParser.parse("2019100110", builder);
+        // the customized rule matches all digits, so the epoch isn't detected by length
+        assert builder.getUnixsecond() == 0;
+        assert builder.getYear() == 2019 && builder.getMonth() == 10 && builder.getDay() == 1 && builder.getHour() == 10;
+
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser.newBuilder().metrics(metrics).build().parseDate("1384216367189");
+        assert metrics.getRuleHits().containsKey("^(?<millisecond>\\d{11,13})$");
+        DateParser specialized = parser.specialize(Arrays.asList("1384216367189", "1384216367190"));
+        assert specialized.parseDate("1384216367189").getTime() == 1384216367189L;
+    }
+
+    @Test
+    public void testParseBuilder() {
+        DateBuilder builder = new DateBuilder();
+        parser.parse("2014-04-26 05:24:37.123 PM", builder);
+        assert builder.getYear() == 2014;
+        assert builder.getMonth() == 4;
+        assert builder.getDay() == 26;
+        assert builder.getHour() == 17;
+        assert builder.getMinute() == 24;
+        assert builder.getSecond() == 37;
+        assert builder.getNs() == 123000000;
+        assert !builder.isPm();
+        assert builder.toOffsetDateTime().equals(parser.parseOffsetDateTime("2014-04-26 17:24:37.123"));
+
+        parser.parse("2014-04-26 17:24:37 +0800", builder);
+        assert builder.isZoneOffsetSetted();
+        assert builder.getZoneOffset() == 480;
+        assert builder.toOffsetDateTime().equals(parser.parseOffsetDateTime("2014-04-26 17:24:37 +0800"));
+
+        // reuse
+        parser.parse("1384216367189", builder);
+        assert builder.getYear() == 0;
+        assert builder.getUnixsecond() == 1384216367L;
+        assert builder.getNs() == 189000000;
+        assert !builder.isZoneOffsetSetted();
+
+        try {
+            parser.parse("2019-13-10", builder);
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof DateTimeParseException;
+        }
+    }
+
+    @Test
+    public void testNormalize() throws IOException {
+        String[] inputs = {"2019-10-01", "2019-10-01 10:20:30.123", "Mon Jan 02 15:04:05 -0700 2006", "1384216367189",
+                "2014-12-16 06:20:00 UTC", "2014-04-26 05:24:37 PM", "2019-10-01 10:20:30 Asia/Shanghai",
+                "2012-08-03 18:31:59.257000000 +0000 UTC", "12 Feb 2006, 19:17"};
+        for (String input : inputs) {
+            assert parser.normalize(input).equals(parser.parseOffsetDateTime(input).toString()) : input;
+        }
+        assert DateParserUtils.normalize("Mon Jan 02 15:04:05 -0700 2006").equals("2006-01-02T15:04:05-07:00");
+
+        IsoFormat format = IsoFormat.DEFAULT.precision(3).zulu(false).colon(false);
+        StringBuilder sb = new StringBuilder("ts=");
+        parser.normalize("2019-10-01", format, sb);
+        assert sb.toString().equals("ts=2019-10-01T00:00:00.000+0000");
+
+        StringWriter writer = new StringWriter();
+        parser.normalize("1384216367189", IsoFormat.DEFAULT.precision(6), writer);
+        assert writer.toString().equals("2013-11-12T00:32:47.189000Z");
+
+        char[] buf = new char[64];
+        int end = parser.normalize("2019-10-01 10:20:30.123456789 +08:00", IsoFormat.DEFAULT.precision(0), buf, 2);
+        assert new String(buf, 2, end - 2).equals("2019-10-01T10:20:30+08:00");
+
+        try {
+            IsoFormat.DEFAULT.precision(10);
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof IllegalArgumentException;
+        }
+        try {
+            parser.normalize("2019-13-10");
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof DateTimeParseException;
+        }
+    }
+
+    @Test
+    public void testSpecialize() {
+        DateParser general = DateParser.newBuilder().preferMonthFirst(true).build();
+        DateParser special = general.specialize(Arrays.asList("03/04/2019 10:20:30", "25/12/2019 01:02:03", "invalid"));
+
+        // the samples show it's dd/MM
+        OffsetDateTime dateTime = special.parseOffsetDateTime("05/06/2019 10:20:30");
+        assert dateTime.getDayOfMonth() == 5;
+        assert dateTime.getMonth() == Month.JUNE;
+        assert general.parseOffsetDateTime("05/06/2019 10:20:30").getMonth() == Month.MAY;
+
+        // deviated input should fallback
+        assert special.parseOffsetDateTime("2019-10-01").equals(general.parseOffsetDateTime("2019-10-01"));
+        assert special.isParseable("Mon Jan 02 15:04:05 -0700 2006");
+        assert !special.isParseable("05/06/2019 10:70:30");
+
+        special = general.specialize(Arrays.asList("12/31/2019", "01/02/2020"));
+        assert special.parseOffsetDateTime("03/04/2020").getMonth() == Month.MARCH;
+
+        try {
+            general.specialize(Arrays.asList("invalid", "2019-13-01"));
+            assert false;
+        } catch (Exception e) {
+            assert e instanceof IllegalArgumentException;
+        }
+    }
+
     @Test
     public void allTest() {
         assert match("yyyy-MM-dd HH:mm:ss Z", "2009-05-08 17:57:51 +0000", "May 8, 2009 5:57:51 PM");
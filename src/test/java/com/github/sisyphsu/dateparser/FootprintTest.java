@@ -0,0 +1,82 @@
+package com.github.sisyphsu.dateparser;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Check the retained bytes of every parser, to avoid footprint's regression when parsers are created per thread.
+ * <p>
+ * The compiled rules are shared by all parsers of the same rules, so the budget only covers the parser's own
+ * matching state. It's measured as the reachable bytes of two parsers minus one's, after both parsed the corpus.
+ *
+ * @author sulin
+ * @since 2026-10-19 23:57:36
+ */
+public class FootprintTest {
+
+    private static final String[] CORPUS = {
+            "2019-10-01",
+            "2019-10-01 10:20:30",
+            "2019-10-01T10:20:30.123+08:00",
+            "Mon Jan 02 15:04:05 -0700 2006",
+            "03/31/2014 22:05",
+            "1384216367189",
+            "2014-12-16 06:20:00 UTC",
+            "September 17, 2012 10:09am",
+            "2019年10月01日 10:20:30",
+            "12 Feb 2006, 19:17 Asia/Shanghai",
+    };
+
+    private static final RuleHandler HANDLER = (cs, matcher, dt) -> dt.setYear(2019);
+
+    @Test
+    public void defaultParser() {
+        assertBudget("default", 4096, () -> DateParser.newBuilder().build());
+    }
+
+    @Test
+    public void customizedParser() {
+        assertBudget("customized", 4096, () -> DateParser.newBuilder().addRule("【(?<year>\\d{4})】")
+                .addRule("\\(this year\\)", HANDLER).build());
+    }
+
+    @Test
+    public void profiledParser() {
+        assertBudget("profiled", 4096, () -> DateParser.newBuilder().profile(Arrays.asList(CORPUS))
+                .fallback(true).build());
+    }
+
+    /**
+     * It depends on System.gc(), so it runs by the budget profile only.
+     */
+    @Test
+    @Tag("budget")
+    public void releasedTables() {
+        int before = RuleTable.cachedCount();
+        for (int i = 0; i < 20; i++) {
+            int year = 2000 + i;
+            DateParser.newBuilder().addRule("\\(this year\\)", (cs, matcher, dt) -> dt.setYear(year)).build();
+        }
+        // the released tables and their handlers are purged at the next lookup
+        for (int i = 0; i < 50 && RuleTable.cachedCount() > before + 10; i++) {
+            System.gc();
+            DateParser.newBuilder().build();
+        }
+        assert RuleTable.cachedCount() <= before + 10;
+    }
+
+    private void assertBudget(String name, long budget, Supplier<DateParser> supplier) {
+        DateParser first = supplier.get();
+        DateParser second = supplier.get();
+        for (String text : CORPUS) {
+            assert first.isParseable(text) && second.isParseable(text) : text;
+        }
+        long bytes = GraphLayout.parseInstance(first, second).totalSize() - GraphLayout.parseInstance(first).totalSize();
+        assert bytes <= budget : name + " parser retained " + bytes + " bytes, exceeds the budget " + budget;
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.github.sisyphsu.dateparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.TimeZone;
+
+/**
+ * @author sulin
+ * @since 2026-10-20 01:58:36
+ */
+public class IncrementalParserTest {
+
+    private final DateParser parser = DateParser.newBuilder().build();
+
+    @Test
+    public void testLogs() {
+        IncrementalParser incremental = parser.incremental();
+        DateTimeFormatter[] formats = {DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"),
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSXXX"),
+                DateTimeFormatter.ofPattern("MM/dd/yyyy hh:mm:ss a"),
+                DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss yyyy")};
+        int reused = 0;
+        for (DateTimeFormatter format : formats) {
+            LocalDateTime time = LocalDateTime.of(2019, 12, 31, 22, 59, 58, 123456789);
+            for (int i = 0; i < 2000; i++) {
+                time = time.plusNanos(i * 9876543210L % 90000000000L);
+                String text = time.atZone(ZoneId.of("Asia/Shanghai")).format(format);
+                if (assertSame(parser, incremental, text)) {
+                    reused++;
+                }
+            }
+        }
+        assert reused > 7000;
+    }
+
+    @Test
+    public void testZone() {
+        IncrementalParser incremental = parser.incremental();
+        String[] texts = {"2019-03-31 00:59:59 Europe/London", "2019-03-31 02:00:00 Europe/London",
+                "2019-10-27 01:30:00 Europe/London", "2019-10-27 02:30:00 Europe/London",
+                "2019-10-01 10:20:30 +08:00", "2019-10-01 10:20:30 +03:30", "2019-10-01 23:20:30 +03:30",
+                "Mon Jan 02 15:04:05 -0700 2006", "Mon Jan 02 15:04:05 -0800 2006", "Mon Jan 02 16:04:05 -0800 2006"};
+        boolean[] reused = {false, true, true, true, false, true, true, false, true, true};
+        for (int i = 0; i < texts.length; i++) {
+            assert assertSame(parser, incremental, texts[i]) == reused[i] : texts[i];
+        }
+    }
+
+    @Test
+    public void testDayOrMonth() {
+        DateParser usParser = DateParser.newBuilder().preferMonthFirst(true).build();
+        String[] texts = {"01/02/2019 10:20", "12/02/2019 10:20", "13/02/2019 10:20", "02/13/2019 10:20", "02/12/2019 10:20"};
+        for (DateParser p : new DateParser[]{parser, usParser}) {
+            IncrementalParser incremental = p.incremental();
+            for (int i = 0; i < texts.length; i++) {
+                assert assertSame(p, incremental, texts[i]) == (i > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testEpoch() {
+        IncrementalParser incremental = parser.incremental();
+        IncrementalParser secondIncremental = parser.incremental();
+        for (long millis = 1384216367189L; millis < 1384316367189L; millis += 7777) {
+            assertSame(parser, incremental, String.valueOf(millis));
+            assertSame(parser, secondIncremental, String.valueOf(millis / 1000));
+        }
+        assert incremental.getReusedCount() > 12000;
+        assert secondIncremental.getReusedCount() > 12000;
+    }
+
+    @Test
+    public void testInvalid() {
+        IncrementalParser incremental = parser.incremental();
+        String[] texts = {"2019-10-01 10:20:30", "2019-10-01 10:21:30", "2019-10-01 10:60:30", "2019-10-01 10:22:30",
+                "2019-02-30 10:22:30", "2019-02-28 10:22:30", "2019-02-28 10:22:31", "2019-02-28 1a:22:31",
+                "2019-02-28 10:22:31", "2019-02-28 10:22:31.123"};
+        boolean[] reused = {false, true, false, false, false, false, true, false, false, false};
+        for (int i = 0; i < texts.length; i++) {
+            assert assertSame(parser, incremental, texts[i]) == reused[i] : texts[i];
+        }
+    }
+
+    @Test
+    public void testDigitRule() {
+        DateParser customized = DateParser.newBuilder()
+                .addRule("(?<year>\\d{4})0(?<month>\\d{2})")
+                .addRule("(?<year>\\d{4})1(?<month>\\d{2})(?<day>\\d{2})")
+                .build();
+        IncrementalParser incremental = customized.incremental();
+        String[] texts = {"2019010", "2019110", "2019-10-01 10:20:30", "2019-10-01 10:20:31"};
+        for (String text : texts) {
+            assert !assertSame(customized, incremental, text);
+        }
+
+        DateParser handled = DateParser.newBuilder()
+                .addRule("y(\\d)", (input, matcher, dt) -> dt.setYear(2010 + input.charAt(matcher.end() - 1) - '0'))
+                .build();
+        incremental = handled.incremental();
+        assert !assertSame(handled, incremental, "y1");
+        assert !assertSame(handled, incremental, "y2");
+        assert !assertSame(handled, incremental, "2019-10-01 10:20:30");
+        assert assertSame(handled, incremental, "2019-10-01 10:20:31");
+
+        // the user's handler replaced the predefined zone rule, it's unknown even if the regex is the same
+        DateParser replaced = DateParser.newBuilder()
+                .addRule(" ?pdt", (input, matcher, dt) -> dt.zone = TimeZone.getTimeZone("PST8PDT"))
+                .build();
+        incremental = replaced.incremental();
+        assert !assertSame(replaced, incremental, "2019-10-01 10:20:30 pdt");
+        assert !assertSame(replaced, incremental, "2019-10-01 10:20:31 pdt");
+    }
+
+    /**
+     * Check the incremental parsing is the same as the full parsing, and return whether it reused the previous input.
+     */
+    private static boolean assertSame(DateParser parser, IncrementalParser incremental, String text) {
+        OffsetDateTime expected;
+        try {
+            expected = parser.parseOffsetDateTime(text);
+        } catch (DateTimeException e) {
+            expected = null;
+        }
+        long reused = incremental.getReusedCount();
+        try {
+            long epochSecond = incremental.parseEpochSecond(text);
+            assert expected != null : text;
+            assert epochSecond == expected.toEpochSecond() : text;
+        } catch (DateTimeException e) {
+            assert expected == null : text;
+            return false;
+        }
+        boolean result = incremental.getReusedCount() > reused;
+        assert incremental.parseInstant(text).equals(expected.toInstant()) : text;
+        assert incremental.parseEpochMilli(text) == expected.toInstant().toEpochMilli() : text;
+        DateBuilder dt = new DateBuilder();
+        incremental.parse(text, dt);
+        assert dt.toOffsetDateTime().equals(expected) : text;
+        return result;
+    }
+
+}
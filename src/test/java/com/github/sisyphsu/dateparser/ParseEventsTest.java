@@ -0,0 +1,113 @@
+package com.github.sisyphsu.dateparser;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author sulin
+ * @since 2026-10-19 17:12:26
+ */
+public class ParseEventsTest {
+
+    private static final String PREFIX = "com.github.sisyphsu.dateparser.";
+
+    @BeforeAll
+    public static void setup() {
+        Assumptions.assumeTrue(ParseEvents.isAvailable());
+        DateParserUtils.parseDate("2019-10-01"); // build the shared parser before recording
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PREFIX + "SlowParse").withThreshold(java.time.Duration.ZERO);
+            recording.enable(PREFIX + "FailedParse");
+            recording.enable(PREFIX + "Build");
+            recording.enable(PREFIX + "Register");
+            recording.start();
+
+            DateParser parser = DateParser.newBuilder().build();
+            DateParser.newBuilder().build();
+            parser.parseDate("2019-10-01 10:20:30");
+            assert !parser.isParseable("2019-13-01");
+            assert parser.parsePrefix("2019-10-01 10:20 INFO", 0, new DateBuilder()) == 16;
+            assert parser.findAll("see 2019-10-01 and may", (text, start, end, dt) -> {
+            }) == 1;
+            DateParserUtils.registerStandardRule("【(?<year>\\d{4})】");
+
+            recording.stop();
+            Path file = Files.createTempFile("dateparser", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        // the prefix parsing and findAll's found date are recorded too, but findAll's failed attempts aren't
+        List<RecordedEvent> slows = filter(events, "SlowParse");
+        assert slows.size() == 4;
+        assert slows.get(0).getInt("inputLength") == 19;
+        assert !slows.get(0).getString("matchedRules").isEmpty();
+        assert slows.get(1).getBoolean("failed");
+        assert slows.get(2).getInt("inputLength") == 21;
+        assert !slows.get(3).getBoolean("failed");
+
+        List<RecordedEvent> failures = filter(events, "FailedParse");
+        assert failures.size() == 1;
+        assert failures.get(0).getString("input").equals("2019-13-01");
+        assert failures.get(0).getString("reason").equals("Invalid month");
+        assert failures.get(0).getInt("offset") == 5;
+
+        // the parsers built by test and DateParserUtils, the second parser shares the first one's compiled rules
+        List<RecordedEvent> builds = filter(events, "Build");
+        assert builds.size() == 3;
+        assert builds.get(0).getInt("ruleCount") > builds.get(0).getInt("standardRuleCount");
+        assert builds.get(1).getBoolean("cached");
+
+        List<RecordedEvent> registers = filter(events, "Register");
+        assert registers.size() == 1;
+        assert registers.get(0).getBoolean("standard");
+    }
+
+    @Test
+    public void testSampling() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PREFIX + "FailedParse").with("sampling", "1000000");
+            recording.start();
+            DateParser parser = DateParser.newBuilder().build();
+            for (int i = 0; i < 100; i++) {
+                assert !parser.isParseable("hello world");
+            }
+            recording.stop();
+            Path file = Files.createTempFile("dateparser", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+        assert filter(events, "FailedParse").size() < 100;
+    }
+
+    private static List<RecordedEvent> filter(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(PREFIX + name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.github.sisyphsu.dateparser;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author sulin
+ * @since 2026-10-19 16:30:05
+ */
+public class ParseMetricsTest {
+
+    @Test
+    public void testRecord() {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser parser = DateParser.newBuilder().metrics(metrics).build();
+
+        parser.parseDate("2019-10-01 10:20:30");
+        parser.parseDate("2019-10-02 10:20:30");
+        assert parser.isParseable("2019-10-03");
+        assert !parser.isParseable("2019-13-01");
+        assert !parser.isParseable("hello world");
+
+        ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        assert snapshot.getParseCount() == 5;
+        assert snapshot.getFailureCount() == 2;
+        assert snapshot.getFailures().get("Invalid month") == 1;
+        assert snapshot.getFailures().get("unmatched") == 1;
+        assert snapshot.getFailureOffsets().get("Invalid month")[3] == 1; // offset 5 is in [4, 8)
+        assert Arrays.stream(snapshot.getLatencyHistogram()).sum() == 5;
+        assert snapshot.latencyPercentile(0.5) > 0;
+
+        // the most frequent rule is the first one
+        long top = snapshot.getRuleHits().values().iterator().next();
+        assert top >= 3;
+        assert snapshot.getRuleHits().values().stream().allMatch(v -> v <= top);
+    }
+
+    @Test
+    public void testMultipleThreads() throws Exception {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParserBuilder builder = DateParser.newBuilder().metrics(metrics);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            DateParser parser = builder.build();
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    parser.parseDate("2019-10-01 10:20:30");
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assert metrics.snapshot().getParseCount() == 4000;
+    }
+
+    @Test
+    public void testHandlerError() {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser parser = DateParser.newBuilder()
+                .addRule("error(\\d+)", (input, matcher, dt) -> {
+                    throw new IllegalStateException();
+                })
+                .metrics(metrics)
+                .build();
+        assert !parser.isParseable("error123");
+        assert metrics.snapshot().getFailures().get("handler error") == 1;
+    }
+
+    @Test
+    public void testSpecialize() {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser parser = DateParser.newBuilder().metrics(metrics).build();
+        DateParser specialized = parser.specialize(Arrays.asList("2019-10-01", "2019-10-02"));
+        specialized.parseDate("2019-10-03");
+        specialized.parseDate("10/03/2019");
+        // 2 samples, 1 specialized parsing, and 1 failed specialized parsing recovered by its fallback
+        ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        assert snapshot.getParseCount() == 4;
+        assert snapshot.getFailureCount() == 0;
+
+        assert !specialized.isParseable("hello world");
+        snapshot = metrics.snapshot();
+        assert snapshot.getParseCount() == 5;
+        assert snapshot.getFailureCount() == 1;
+    }
+
+    @Test
+    public void testThreadChurn() throws Exception {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParserBuilder builder = DateParser.newBuilder().metrics(metrics);
+        for (int i = 0; i < 100; i++) {
+            DateParser parser = builder.build();
+            Thread thread = new Thread(() -> {
+                parser.parseDate("2019-10-01 10:20:30");
+                assert !parser.isParseable("2019-13-01");
+            });
+            thread.start();
+            thread.join();
+        }
+        ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        assert snapshot.getParseCount() == 200;
+        assert snapshot.getFailures().get("Invalid month") == 100;
+        assert snapshot.getRuleHits().values().iterator().next() >= 100;
+
+        Field field = ParseMetrics.class.getDeclaredField("stripes");
+        field.setAccessible(true);
+        assert ((Collection<?>) field.get(metrics)).isEmpty();
+    }
+
+    @Test
+    public void testImmutableSnapshot() {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser parser = DateParser.newBuilder().metrics(metrics).build();
+        assert !parser.isParseable("2019-13-01");
+        ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        snapshot.getLatencyHistogram()[0] = 100;
+        snapshot.getFailureOffsets().get("Invalid month")[0] = 100;
+        assert Arrays.stream(snapshot.getLatencyHistogram()).sum() == 1;
+        assert Arrays.stream(snapshot.getFailureOffsets().get("Invalid month")).sum() == 1;
+    }
+
+    @Test
+    public void testPrefix() {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser parser = DateParser.newBuilder().metrics(metrics).build();
+        DateBuilder builder = new DateBuilder();
+        assert parser.parsePrefix("2019-10-01 10:20:30 INFO started", 0, builder) > 0;
+        assert parser.parsePrefix("INFO started", 0, builder) == -1;
+        // findAll records the found dates only, not the failed attempts at every word
+        assert parser.findAll("see 2019-10-01 and 2019-10-02 in may", (text, start, end, dt) -> {
+        }) == 2;
+        ParseMetrics.Snapshot snapshot = metrics.snapshot();
+        assert snapshot.getParseCount() == 4;
+        assert snapshot.getFailureCount() == 1;
+        assert snapshot.getFailures().get("unmatched") == 1;
+    }
+
+    @Test
+    public void testDisabled() {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser parser = DateParser.newBuilder().metrics(metrics).build();
+        parser.setMetrics(null);
+        parser.parseDate("2019-10-01");
+        assert metrics.snapshot().getParseCount() == 0;
+    }
+
+    @Test
+    public void testListenerAndMBean() throws Exception {
+        ParseMetrics metrics = new ParseMetrics();
+        DateParser parser = DateParser.newBuilder().metrics(metrics).build();
+        parser.parseDate("2019-10-01");
+
+        List<ParseMetrics.Snapshot> snapshots = new ArrayList<>();
+        metrics.addListener(snapshots::add);
+        metrics.publish();
+        assert snapshots.size() == 1;
+        assert snapshots.get(0).getParseCount() == 1;
+
+        String name = "com.github.sisyphsu.dateparser:type=ParseMetrics,name=test";
+        metrics.registerMBean(name);
+        try {
+            Object count = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(name), "ParseCount");
+            assert Long.valueOf(1).equals(count);
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assert !ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(name));
+    }
+
+}
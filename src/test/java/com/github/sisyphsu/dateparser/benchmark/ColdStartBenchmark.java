@@ -0,0 +1,229 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateParser;
+import com.github.sisyphsu.dateparser.DateParserBuilder;
+import com.github.sisyphsu.dateparser.RuleFamily;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the cold-start cost in fresh JVMs, every fork runs the benchmark method only once:
+ * <ul>
+ *     <li>classInit: DateParserBuilder's static initializer, which formats all rules and walks all TimeZone.</li>
+ *     <li>build: DateParserBuilder.build(), which compiles all rules into one ReTree.</li>
+ *     <li>firstParse: the first parsing of a built parser, which compiles the plans of its matched rules.</li>
+ *     <li>warmup: every iteration parses {@link #BATCH} times, used for computing the time until steady state.</li>
+ * </ul>
+ * Run {@link #main(String[])} to get the report of every {@link Config}, including the heap retained by one parser.
+ *
+ * @author sulin
+ * @since 2026-10-19 14:20:36
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ColdStartBenchmark {
+
+    private static final int BATCH = 100;
+
+    private static final String[] TEXTS = {
+            "2019-10-01 10:20:30.123+0800",
+            "2019-10-02 11:20:30.123+0800",
+            "2019-10-03 12:20:30.123+0800",
+            "2019-10-04 13:20:30.123+0800",
+    };
+
+    /**
+     * The rule-set configuration of parser.
+     */
+    public enum Config {
+        DEFAULT,
+        CUSTOMIZED {
+            @Override
+            DateParserBuilder builder() {
+                return DateParser.newBuilder()
+                        .addRule("【(?<year>\\d{4})】")
+                        .addRule("民国(\\d{3})年", (input, matcher, dt) -> dt.setYear(1911));
+            }
+        },
+        NUMERIC_ONLY {
+            @Override
+            DateParserBuilder builder() {
+                return DateParser.newBuilder().includeFamilies(RuleFamily.NUMERIC_DATE, RuleFamily.TIME, RuleFamily.ZONE_OFFSET);
+            }
+        },
+        SPECIALIZED {
+            @Override
+            DateParser build(DateParserBuilder builder) {
+                return builder.build().specialize(Arrays.asList(TEXTS));
+            }
+        };
+
+        DateParserBuilder builder() {
+            return DateParser.newBuilder();
+        }
+
+        DateParser build(DateParserBuilder builder) {
+            return builder.build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BuilderState {
+        @Param
+        Config config;
+        DateParserBuilder builder;
+
+        @Setup
+        public void setup() {
+            builder = config.builder();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ParserState {
+        @Param
+        Config config;
+        DateParser parser;
+        int index;
+
+        @Setup
+        public void setup() {
+            parser = config.build(config.builder());
+        }
+    }
+
+    @Benchmark
+    public Object classInit() {
+        return DateParser.newBuilder();
+    }
+
+    @Benchmark
+    public Object build(BuilderState state) {
+        return state.config.build(state.builder);
+    }
+
+    @Benchmark
+    public Object firstParse(ParserState state) {
+        return state.parser.parseDate(TEXTS[0]);
+    }
+
+    @Benchmark
+    @Fork(3)
+    @Measurement(iterations = 500, batchSize = BATCH)
+    public void warmup(ParserState state, Blackhole bh) {
+        bh.consume(state.parser.parseDate(TEXTS[state.index++ & 3]));
+    }
+
+    @Test
+    public void test() {
+        for (Config config : Config.values()) {
+            DateParser parser = config.build(config.builder());
+            for (String text : TEXTS) {
+                assert parser.parseDate(text) != null;
+            }
+        }
+    }
+
+    /**
+     * Run all benchmarks, and print the report of every configuration.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(ColdStartBenchmark.class.getSimpleName()).build();
+        Map<String, Map<String, Double>> report = new TreeMap<>();
+        for (RunResult result : new Runner(options).run()) {
+            String name = result.getParams().getBenchmark();
+            name = name.substring(name.lastIndexOf('.') + 1);
+            String config = result.getParams().getParam("config");
+            Map<String, Double> row = report.computeIfAbsent(config == null ? "*" : config, k -> new LinkedHashMap<>());
+            if (name.equals("warmup")) {
+                row.put("steady(ms)", steadyMillis(result));
+                row.put("steadyParse(ns)", steadyNanos(result));
+            } else {
+                row.put(name + "(us)", result.getPrimaryResult().getScore());
+            }
+        }
+        for (Config config : Config.values()) {
+            report.computeIfAbsent(config.name(), k -> new LinkedHashMap<>()).put("retained(KB)", retainedBytes(config) / 1024.0);
+        }
+        report.forEach((config, row) -> {
+            StringBuilder sb = new StringBuilder(config);
+            row.forEach((k, v) -> sb.append('\t').append(k).append('=').append(String.format("%.1f", v)));
+            System.out.println(sb);
+        });
+    }
+
+    /**
+     * The median of every fork's time until steady state, the steady state means the iteration's time is close
+     * to the median of the last 100 iterations.
+     */
+    private static double steadyMillis(RunResult result) {
+        List<Double> forks = new ArrayList<>();
+        for (BenchmarkResult fork : result.getBenchmarkResults()) {
+            List<Double> scores = new ArrayList<>();
+            for (IterationResult iteration : fork.getIterationResults()) {
+                scores.add(iteration.getPrimaryResult().getScore());
+            }
+            double steady = median(scores.subList(Math.max(0, scores.size() - 100), scores.size())) * 1.1;
+            double elapsed = 0;
+            for (double score : scores) {
+                elapsed += score;
+                if (score <= steady) {
+                    break;
+                }
+            }
+            forks.add(elapsed / 1000);
+        }
+        return median(forks);
+    }
+
+    /**
+     * The parsing cost in steady state.
+     */
+    private static double steadyNanos(RunResult result) {
+        List<Double> forks = new ArrayList<>();
+        for (BenchmarkResult fork : result.getBenchmarkResults()) {
+            List<Double> scores = new ArrayList<>();
+            for (IterationResult iteration : fork.getIterationResults()) {
+                scores.add(iteration.getPrimaryResult().getScore());
+            }
+            forks.add(median(scores.subList(Math.max(0, scores.size() - 100), scores.size())) * 1000 / BATCH);
+        }
+        return median(forks);
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+    }
+
+    /**
+     * Compute the heap retained by one parser after parsing, the shared tables are excluded by subtracting
+     * the reachable bytes of one parser from two's.
+     */
+    static long retainedBytes(Config config) {
+        DateParser first = config.build(config.builder());
+        DateParser second = config.build(config.builder());
+        for (String text : TEXTS) {
+            first.parseDate(text);
+            second.parseDate(text);
+        }
+        return GraphLayout.parseInstance(first, second).totalSize() - GraphLayout.parseInstance(first).totalSize();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateBuilder;
+import com.github.sisyphsu.dateparser.DateParser;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the compact numeric formats, like yyyyMMddhhmmss and epoch in second, millisecond or nanosecond.
+ * <p>
+ * The epoch is parsed by its length directly, the *Regex ones parse it by parsePrefix, which matches rules always.
+ * The fixed-width fields are decoded digit by digit, it's the baseline for any change of the digits' decoding.
+ *
+ * @author sulin
+ * @since 2026-10-19 23:05:41
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(2)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CompactBenchmark {
+
+    private final DateParser parser = DateParser.newBuilder().build();
+    private final DateBuilder builder = new DateBuilder();
+
+    @Benchmark
+    public DateBuilder yyyyMMddhhmmss() {
+        parser.parse("20191001102030", builder);
+        return builder;
+    }
+
+    @Benchmark
+    public DateBuilder second() {
+        parser.parse("1384216367", builder);
+        return builder;
+    }
+
+    @Benchmark
+    public DateBuilder millisecond() {
+        parser.parse("1384216367189", builder);
+        return builder;
+    }
+
+    @Benchmark
+    public DateBuilder nanosecond() {
+        parser.parse("1384216367189123456", builder);
+        return builder;
+    }
+
+    @Benchmark
+    public DateBuilder millisecondRegex() {
+        parser.parsePrefix("1384216367189", 0, builder);
+        return builder;
+    }
+
+    @Benchmark
+    public DateBuilder nanosecondRegex() {
+        parser.parsePrefix("1384216367189123456", 0, builder);
+        return builder;
+    }
+
+    @Test
+    public void test() {
+        assert yyyyMMddhhmmss().toLocalDateTime().equals(LocalDateTime.of(2019, 10, 1, 10, 20, 30));
+        assert second().getUnixsecond() == 1384216367;
+        assert millisecond().getNs() == 189000000;
+        assert nanosecond().getNs() == 189123456;
+        assert millisecondRegex().getNs() == 189000000;
+        assert nanosecondRegex().getNs() == 189123456;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateParser;
+import com.github.sisyphsu.dateparser.IncrementalParser;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare IncrementalParser with the full parsing on the sorted log timestamps.
+ *
+ * @author sulin
+ * @since 2026-10-20 02:21:47
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(2)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class IncrementalBenchmark {
+
+    private static final String[] TEXTS = new String[1000];
+
+    static {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+        LocalDateTime time = LocalDateTime.of(2019, 10, 1, 23, 59, 30);
+        for (int i = 0; i < TEXTS.length; i++) {
+            time = time.plusNanos(i * 123456789L % 300000000L);
+            TEXTS[i] = time.format(format);
+        }
+    }
+
+    private final DateParser parser = DateParser.newBuilder().build();
+    private final IncrementalParser incremental = parser.incremental();
+
+    @Benchmark
+    public void full(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(parser.parseEpochSecond(text));
+        }
+    }
+
+    @Benchmark
+    public void incremental(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(incremental.parseEpochSecond(text));
+        }
+    }
+
+    @Test
+    public void test() {
+        for (String text : TEXTS) {
+            assert incremental.parseEpochSecond(text) == parser.parseEpochSecond(text);
+        }
+        assert incremental.getReusedCount() == TEXTS.length - 1;
+    }
+
+}
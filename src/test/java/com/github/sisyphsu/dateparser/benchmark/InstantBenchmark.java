@@ -0,0 +1,71 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateParser;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the direct epoch arithmetic with the conversion through OffsetDateTime or Calendar.
+ *
+ * @author sulin
+ * @since 2026-10-19 22:16:05
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(2)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class InstantBenchmark {
+
+    private static final String[] TEXTS = {
+            "2019-10-01T10:20:30.123+08:00",
+            "2014-04-26 17:24:37.318636 +0000",
+            "Mon Jan 02 15:04:05 -0700 2006",
+            "2019-10-01 10:20:30",
+    };
+
+    private final DateParser parser = DateParser.newBuilder().build();
+
+    @Benchmark
+    public void offsetDateTime(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(parser.parseOffsetDateTime(text).toInstant());
+        }
+    }
+
+    @Benchmark
+    public void date(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(parser.parseDate(text).toInstant());
+        }
+    }
+
+    @Benchmark
+    public void instant(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(parser.parseInstant(text));
+        }
+    }
+
+    @Benchmark
+    public void epochSecond(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(parser.parseEpochSecond(text));
+        }
+    }
+
+    @Test
+    public void test() {
+        for (String text : TEXTS) {
+            Instant instant = parser.parseOffsetDateTime(text).toInstant();
+            assert parser.parseInstant(text).equals(instant);
+            assert parser.parseEpochSecond(text) == instant.getEpochSecond();
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateBuilder;
+import com.github.sisyphsu.dateparser.DateParser;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the inputs which need multiple rules' matching, the per-rule dispatching cost matters for them.
+ * <p>
+ * {@link DateParser#parse(CharSequence, DateBuilder)} is used to exclude the cost of building result.
+ *
+ * @author sulin
+ * @since 2026-10-19 18:40:15
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(2)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MultiTokenBenchmark {
+
+    @Param({
+            "Mon Jan 02 15:04:05 -0700 2006",
+            "Monday, 02-Jan-06 15:04:05 MST",
+            "2006-01-02T15:04:05.999999999+07:00",
+            "Thu, 4 Jan 2018 17:53:36 +0000 (UTC)",
+            "September 17, 2012 at 10:09:30 pm PST",
+    })
+    private String text;
+
+    private final DateParser parser = DateParser.newBuilder().build();
+    private final DateBuilder builder = new DateBuilder();
+
+    @Benchmark
+    public DateBuilder parse() {
+        parser.parse(text, builder);
+        return builder;
+    }
+
+    @Test
+    public void test() throws NoSuchFieldException {
+        String[] params = MultiTokenBenchmark.class.getDeclaredField("text").getAnnotation(Param.class).value();
+        for (String text : params) {
+            this.text = text;
+            assert parse().getYear() > 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MultiTokenBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateParser;
+import com.github.sisyphsu.dateparser.IsoFormat;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare DateParser.normalize with the usual way parseOffsetDateTime().toString(), which builds OffsetDateTime
+ * and formats it by StringBuilder.
+ *
+ * @author sulin
+ * @since 2026-10-20 00:52:17
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(2)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NormalizeBenchmark {
+
+    private static final String TEXT = "Mon Jan 02 15:04:05.123 -0700 2006";
+
+    private final DateParser parser = DateParser.newBuilder().build();
+    private final StringBuilder sb = new StringBuilder(64);
+
+    @Benchmark
+    public String toStr() {
+        return parser.parseOffsetDateTime(TEXT).toString();
+    }
+
+    @Benchmark
+    public String normalize() {
+        return parser.normalize(TEXT);
+    }
+
+    @Benchmark
+    public StringBuilder normalizeBuffer() {
+        sb.setLength(0);
+        parser.normalize(TEXT, IsoFormat.DEFAULT, sb);
+        return sb;
+    }
+
+    @Test
+    public void test() {
+        assert normalize().equals(toStr());
+        assert normalizeBuffer().toString().equals(toStr());
+    }
+
+}
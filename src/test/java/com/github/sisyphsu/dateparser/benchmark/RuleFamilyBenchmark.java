@@ -0,0 +1,248 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateParser;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark every rule family through every output method, compared with {@link DateTimeFormatter}.
+ * <p>
+ * Run {@link #main(String[])} to get the allocation numbers of {@link GCProfiler} too,
+ * the score is the cost of parsing all samples of one family.
+ *
+ * @author sulin
+ * @since 2026-10-19 10:12:40
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(2)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RuleFamilyBenchmark {
+
+    @Param
+    private Family family;
+
+    private DateParser parser;
+    private DateTimeFormatter[] formatters;
+
+    @Setup
+    public void setup() {
+        parser = DateParser.newBuilder().build();
+        formatters = family.formatters();
+    }
+
+    @Benchmark
+    public void parseDate(Blackhole bh) {
+        for (String text : family.texts) {
+            bh.consume(parser.parseDate(text));
+        }
+    }
+
+    @Benchmark
+    public void parseCalendar(Blackhole bh) {
+        for (String text : family.texts) {
+            bh.consume(parser.parseCalendar(text));
+        }
+    }
+
+    @Benchmark
+    public void parseDateTime(Blackhole bh) {
+        for (String text : family.texts) {
+            bh.consume(parser.parseDateTime(text));
+        }
+    }
+
+    @Benchmark
+    public void parseOffsetDateTime(Blackhole bh) {
+        for (String text : family.texts) {
+            bh.consume(parser.parseOffsetDateTime(text));
+        }
+    }
+
+    @Benchmark
+    public void formatter(Blackhole bh) {
+        String[] texts = family.texts;
+        for (int i = 0; i < texts.length; i++) {
+            bh.consume(formatters[i].parse(texts[i]));
+        }
+    }
+
+    @Test
+    public void test() {
+        for (Family f : Family.values()) {
+            family = f;
+            setup();
+            for (int i = 0; i < f.texts.length; i++) {
+                String text = f.texts[i];
+                assert parser.parseDate(text) != null;
+                assert parser.parseCalendar(text) != null;
+                assert parser.parseDateTime(text) != null;
+                assert parser.parseOffsetDateTime(text) != null;
+                assert formatters[i].parse(text) != null;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RuleFamilyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Samples of each rule family, with the equivalent pattern of DateTimeFormatter.
+     */
+    public enum Family {
+        ISO(new String[]{
+                "2019-10-01",
+                "2019-10-01T10:20:30",
+                "2019-10-01 10:20:30.123",
+                "2019-10-01T10:20:30+08:00",
+        }, new String[]{
+                "yyyy-MM-dd",
+                "yyyy-MM-dd'T'HH:mm:ss",
+                "yyyy-MM-dd HH:mm:ss.SSS",
+                "yyyy-MM-dd'T'HH:mm:ssXXX",
+        }),
+        SLASH(new String[]{
+                "2019/10/01",
+                "2019/10/01 10:20:30",
+                "2019/10/01 10:20:30.123",
+                "2019/10/01 10:20:30.123+0800",
+        }, new String[]{
+                "yyyy/MM/dd",
+                "yyyy/MM/dd HH:mm:ss",
+                "yyyy/MM/dd HH:mm:ss.SSS",
+                "yyyy/MM/dd HH:mm:ss.SSSZ",
+        }),
+        DAY_OR_MONTH(new String[]{
+                "03/31/2014",
+                "31/03/2014",
+                "08.21.71",
+                "4/8/2014 22:05",
+        }, new String[]{
+                "MM/dd/yyyy",
+                "dd/MM/yyyy",
+                "MM.dd.yy",
+                "d/M/yyyy HH:mm",
+        }),
+        MONTH_WORD(new String[]{
+                "Oct 7, 1970",
+                "03 February 2013",
+                "2013-Feb-03",
+                "September 17, 2012, 10:10:09",
+        }, new String[]{
+                "MMM d, yyyy",
+                "dd MMMM yyyy",
+                "yyyy-MMM-dd",
+                "MMMM d, yyyy, HH:mm:ss",
+        }),
+        WEEKDAY(new String[]{
+                "Mon, 02 Jan 2006 15:04:05 -0700",
+                "Monday, 02-Jan-06 15:04:05",
+                "Thu, 4 Jan 2018 17:53:36 +0000",
+        }, new String[]{
+                "EEE, dd MMM yyyy HH:mm:ss Z",
+                "EEEE, dd-MMM-yy HH:mm:ss",
+                "EEE, d MMM yyyy HH:mm:ss Z",
+        }),
+        EPOCH_SECOND(new String[]{"1332151919"}, null) {
+            @Override
+            DateTimeFormatter[] formatters() {
+                return epochFormatters(texts.length, null, 0);
+            }
+        },
+        EPOCH_MILLISECOND(new String[]{"1384216367189"}, null) {
+            @Override
+            DateTimeFormatter[] formatters() {
+                return epochFormatters(texts.length, ChronoField.MILLI_OF_SECOND, 3);
+            }
+        },
+        EPOCH_MICROSECOND(new String[]{"1384216367111222"}, null) {
+            @Override
+            DateTimeFormatter[] formatters() {
+                return epochFormatters(texts.length, ChronoField.MICRO_OF_SECOND, 6);
+            }
+        },
+        EPOCH_NANOSECOND(new String[]{"1384216367111222333"}, null) {
+            @Override
+            DateTimeFormatter[] formatters() {
+                return epochFormatters(texts.length, ChronoField.NANO_OF_SECOND, 9);
+            }
+        },
+        ZONE_ID(new String[]{
+                "2014-12-16 06:20:00 UTC",
+                "2015-02-18 00:12:00 +0000 GMT",
+                "Mon Jan  2 15:04:05 MST 2006",
+        }, new String[]{
+                "yyyy-MM-dd HH:mm:ss z",
+                "yyyy-MM-dd HH:mm:ss Z z",
+                "EEE MMM  d HH:mm:ss z yyyy",
+        }),
+        AM_PM(new String[]{
+                "8/8/1965 01:00:01 PM",
+                "2014-04-26 05:24:37 PM",
+                "September 17, 2012 10:09am",
+        }, new String[]{
+                "M/d/yyyy hh:mm:ss a",
+                "yyyy-MM-dd hh:mm:ss a",
+                "MMMM d, yyyy hh:mma",
+        }),
+        CJK(new String[]{
+                "2019年10月01日",
+                "2019年10月01日 10:20:30",
+                "2019年10月01日 10:20:30.123",
+        }, new String[]{
+                "yyyy年MM月dd日",
+                "yyyy年MM月dd日 HH:mm:ss",
+                "yyyy年MM月dd日 HH:mm:ss.SSS",
+        });
+
+        final String[] texts;
+        final String[] patterns;
+
+        Family(String[] texts, String[] patterns) {
+            this.texts = texts;
+            this.patterns = patterns;
+        }
+
+        DateTimeFormatter[] formatters() {
+            DateTimeFormatter[] result = new DateTimeFormatter[patterns.length];
+            for (int i = 0; i < patterns.length; i++) {
+                result[i] = new DateTimeFormatterBuilder()
+                        .parseCaseInsensitive()
+                        .appendPattern(patterns[i])
+                        .toFormatter(Locale.ENGLISH);
+            }
+            return result;
+        }
+
+        static DateTimeFormatter[] epochFormatters(int count, ChronoField fraction, int width) {
+            DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().appendValue(ChronoField.INSTANT_SECONDS, 10);
+            if (fraction != null) {
+                builder.appendValue(fraction, width);
+            }
+            DateTimeFormatter[] result = new DateTimeFormatter[count];
+            Arrays.fill(result, builder.toFormatter());
+            return result;
+        }
+    }
+
+}
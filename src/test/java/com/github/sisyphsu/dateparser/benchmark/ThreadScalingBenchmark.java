@@ -0,0 +1,137 @@
+package com.github.sisyphsu.dateparser.benchmark;
+
+import com.github.sisyphsu.dateparser.DateParser;
+import com.github.sisyphsu.dateparser.DateParserUtils;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the throughput's scaling of concurrent parsing, with synchronized {@link DateParserUtils},
+ * one {@link DateParser} per thread, and pooled parsers.
+ * <p>
+ * Run {@link #main(String[])} to get the scaling curve from 1 to N threads,
+ * the group benchmark {@code register} keeps calling {@link DateParserUtils#registerCustomizedRule}
+ * with a new handler in one thread while others are parsing, so the rules are compiled again every time.
+ *
+ * @author sulin
+ * @since 2026-10-19 11:05:12
+ */
+@Warmup(iterations = 2, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 3, time = 3)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ThreadScalingBenchmark {
+
+    private static final String[] TEXTS = {
+            "2019-10-01 10:20:30.123+0800",
+            "Mon Jan 02 15:04:05 -0700 2006",
+            "03/31/2014 22:05",
+            "1384216367189",
+    };
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final DateParser parser = DateParser.newBuilder().build();
+        int index;
+
+        String next() {
+            return TEXTS[index++ & (TEXTS.length - 1)];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PoolState {
+        BlockingQueue<DateParser> pool;
+
+        @Setup
+        public void setup() {
+            int size = Runtime.getRuntime().availableProcessors();
+            pool = new ArrayBlockingQueue<>(size);
+            for (int i = 0; i < size; i++) {
+                pool.add(DateParser.newBuilder().build());
+            }
+        }
+    }
+
+    @Benchmark
+    public void shared(ThreadState state, Blackhole bh) {
+        bh.consume(DateParserUtils.parseDate(state.next()));
+    }
+
+    @Benchmark
+    public void perThread(ThreadState state, Blackhole bh) {
+        bh.consume(state.parser.parseDate(state.next()));
+    }
+
+    @Benchmark
+    public void pooled(PoolState pool, ThreadState state, Blackhole bh) throws InterruptedException {
+        DateParser parser = pool.pool.take();
+        try {
+            bh.consume(parser.parseDate(state.next()));
+        } finally {
+            pool.pool.put(parser);
+        }
+    }
+
+    @Benchmark
+    @Group("register")
+    @GroupThreads(3)
+    public void registerParse(ThreadState state, Blackhole bh) {
+        bh.consume(DateParserUtils.parseDate(state.next()));
+    }
+
+    @Benchmark
+    @Group("register")
+    @GroupThreads(1)
+    public void registerRule(ThreadState state) {
+        // the same rule is replaced, so the rule list wouldn't grow, but the capturing lambda is a new handler,
+        // which misses the cached RuleTable
+        int base = 1911 + (state.index++ & 1);
+        DateParserUtils.registerCustomizedRule("民国(\\d{3})年", (input, matcher, dt) -> dt.setYear(base));
+    }
+
+    @Test
+    public void test() {
+        ThreadState state = new ThreadState();
+        for (int i = 0; i < TEXTS.length * 2; i++) {
+            String text = state.next();
+            assert state.parser.parseDate(text).equals(DateParserUtils.parseDate(text));
+        }
+    }
+
+    /**
+     * Run shared/perThread/pooled benchmarks from 1 to N threads, and print the scaling curve in ops/s.
+     */
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        Map<String, Map<Integer, Double>> curve = new TreeMap<>();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(ThreadScalingBenchmark.class.getSimpleName() + "\\.(shared|perThread|pooled)$")
+                    .threads(threads)
+                    .build();
+            for (RunResult result : new Runner(options).run()) {
+                String name = result.getParams().getBenchmark();
+                name = name.substring(name.lastIndexOf('.') + 1);
+                curve.computeIfAbsent(name, k -> new TreeMap<>()).put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+        System.out.println("Benchmark\tThreads\tops/s");
+        curve.forEach((name, scores) -> scores.forEach((threads, score) ->
+                System.out.printf("%s\t%d\t%.0f%n", name, threads, score)));
+    }
+
+}